@@ -1,61 +1,332 @@
 package com.config;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Entry point for environment configuration
+ * Values come from an immutable ConfigSnapshot (see its layer order), resolved once
+ * and swapped atomically on reload(), so getters are plain field reads.
+ *
+ * -Denv selects the environment (default dev), -Dconfig.dir the properties directory.
+ * Long-running processes can call startWatching() (or set -Dconfig.watch=true) to pick
+ * up edits to the environment file without a restart.
+ */
 public class ConfigManager {
 	private static final Logger logger = Logger.getLogger(ConfigManager.class.getName());
-	private static Properties properties;
 	private static final String DEFAULT_ENV = "dev";
+	private static final String DEFAULT_CONFIG_DIR = "src/test/resources/config";
+
+	private static volatile ConfigSnapshot snapshot;
+	private static WatchService watchService;
 
 	static {
 		loadConfiguration();
+		if (Boolean.getBoolean("config.watch")) {
+			startWatching();
+		}
 	}
 
 	private static void loadConfiguration() {
+		try {
+			snapshot = resolve();
+			logger.info("Loaded configuration for '" + snapshot.environment() + "' from " + snapshot.sources());
+		} catch (IOException | IllegalArgumentException e) {
+			logger.log(Level.SEVERE, "Failed to load configuration", e);
+			throw new IllegalStateException("Failed to load configuration", e);
+		}
+	}
+
+	private static ConfigSnapshot resolve() throws IOException {
 		String environment = System.getProperty("env", DEFAULT_ENV);
-	String configFile = String.format("src/test/resources/config/%s.properties", environment);
+		Path configDir = Paths.get(System.getProperty("config.dir", DEFAULT_CONFIG_DIR));
+		return ConfigSnapshot.resolve(environment, configDir, System.getenv(), System.getProperties());
+	}
 
-		properties = new Properties();
+	/**
+	 * Get the current configuration snapshot
+	 * Read several values from one snapshot when they must be consistent with each other.
+	 */
+	public static ConfigSnapshot snapshot() {
+		return snapshot;
+	}
 
-		try (InputStream input = new FileInputStream(configFile)) {
-			properties.load(input);
-			logger.info("Loaded configuration from " + configFile);
+	/**
+	 * Resolve all layers again and swap in the result
+	 * A snapshot that fails to load or parse is logged and the current one is kept.
+	 * @return true if a new snapshot is now active
+	 */
+	public static boolean reload() {
+		try {
+			snapshot = resolve();
+			logger.info("Reloaded configuration for '" + snapshot.environment() + "' from " + snapshot.sources());
+			return true;
+		} catch (IOException | IllegalArgumentException e) {
+			logger.log(Level.SEVERE, "Failed to reload configuration, keeping previous values", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Reload whenever the environment file changes, on a daemon thread
+	 */
+	public static synchronized void startWatching() {
+		if (watchService != null) {
+			return;
+		}
+		Path file = snapshot.file().toAbsolutePath();
+		Path directory = file.getParent();
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+			directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException e) {
+			logger.log(Level.SEVERE, "Failed to watch configuration directory: " + directory, e);
+			return;
+		}
+		WatchService service = watchService;
+		Thread watcher = new Thread(() -> watch(service, file.getFileName()), "config-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+		logger.info("Watching " + file + " for configuration changes");
+	}
+
+	public static synchronized void stopWatching() {
+		if (watchService == null) {
+			return;
+		}
+		try {
+			watchService.close();
 		} catch (IOException e) {
-			logger.log(Level.SEVERE, "Failed to load configuration file: " + configFile, e);
+			logger.log(Level.WARNING, "Failed to close configuration watcher", e);
 		}
+		watchService = null;
+	}
+
+	private static void watch(WatchService service, Path fileName) {
+		try {
+			while (true) {
+				WatchKey key = service.take();
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					changed |= fileName.equals(event.context());
+				}
+				key.reset();
+				if (changed) {
+					// Editors often write a file in several steps; let them finish
+					Thread.sleep(100);
+					drain(service);
+					reload();
+				}
+			}
+		} catch (ClosedWatchServiceException e) {
+			logger.info("Stopped watching configuration");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void drain(WatchService service) {
+		WatchKey key;
+		while ((key = service.poll()) != null) {
+			key.pollEvents();
+			key.reset();
+		}
+	}
+
+	/**
+	 * Get any configuration value, or null when no layer defines it
+	 */
+	public static String get(String key) {
+		return snapshot.get(key);
 	}
 
 	public static String getBaseUrl() {
-		return getProperty("base.url");
+		return snapshot.baseUrl();
 	}
 
 	public static String getUserName() {
-		return getProperty("username");
+		return snapshot.userName();
 	}
 
 	public static String getPassword() {
-		return getProperty("password");
+		return snapshot.password();
 	}
 
 	public static String getBrowser() {
-		return getProperty("browser", "chromium");
+		return snapshot.browser();
 	}
 
 	public static double getTimeout() {
-		String timeout = getProperty("timeout", "30000");
-		return Double.parseDouble(timeout);
+		return snapshot.timeout();
+	}
+
+	/**
+	 * Maximum number of data-provider rows running at once
+	 */
+	public static int getParallelRows() {
+		return snapshot.parallelRows();
+	}
+
+	/**
+	 * Number of test methods running at once when the suite runs in parallel
+	 */
+	public static int getParallelMethods() {
+		return snapshot.parallelMethods();
+	}
+
+	/**
+	 * Whether the number of running tests follows CPU and memory headroom
+	 */
+	public static boolean isParallelAdaptive() {
+		return snapshot.parallelAdaptive();
+	}
+
+	/**
+	 * Memory in MB adaptive parallelism keeps free
+	 */
+	public static long getParallelAdaptiveReserveMb() {
+		return snapshot.parallelAdaptiveReserveMb();
+	}
+
+	/**
+	 * Playwright tracing mode: off, on or retain-on-failure
+	 */
+	public static String getTraceMode() {
+		return snapshot.trace();
+	}
+
+	/**
+	 * Browser server mode: off, shared or connect
+	 */
+	public static String getBrowserServer() {
+		return snapshot.browserServer();
+	}
+
+	/**
+	 * Browser server WebSocket endpoint for connect mode, empty when unset
+	 */
+	public static String getBrowserServerEndpoint() {
+		return snapshot.browserServerEndpoint();
+	}
+
+	/**
+	 * Number of shared browser processes; 0 launches one browser per thread
+	 */
+	public static int getBrowserInstances() {
+		return snapshot.browserInstances();
+	}
+
+	/**
+	 * Maximum open contexts per shared browser process
+	 */
+	public static int getBrowserContexts() {
+		return snapshot.browserContexts();
+	}
+
+	/**
+	 * Screenshot encoding: png or jpeg
+	 */
+	public static String getScreenshotFormat() {
+		return snapshot.screenshotFormat();
+	}
+
+	/**
+	 * Failure screenshot encoding: png or jpeg
+	 */
+	public static String getScreenshotFailureFormat() {
+		return snapshot.screenshotFailureFormat();
+	}
+
+	/**
+	 * JPEG screenshot quality from 0 to 100
+	 */
+	public static int getScreenshotQuality() {
+		return snapshot.screenshotQuality();
+	}
+
+	/**
+	 * Screenshot scale: device or css
+	 */
+	public static String getScreenshotScale() {
+		return snapshot.screenshotScale();
+	}
+
+	/**
+	 * Whether identical auto-named screenshots are stored once
+	 */
+	public static boolean isScreenshotDedup() {
+		return snapshot.screenshotDedup();
+	}
+
+	/**
+	 * Number of background screenshot writer threads
+	 */
+	public static int getScreenshotWriters() {
+		return snapshot.screenshotWriters();
+	}
+
+	/**
+	 * Screenshots queued for the writers before the test thread writes its own
+	 */
+	public static int getScreenshotQueue() {
+		return snapshot.screenshotQueue();
+	}
+
+	/**
+	 * Directory holding visual regression baselines
+	 */
+	public static String getVisualBaselines() {
+		return snapshot.visualBaselines();
+	}
+
+	/**
+	 * Whether visual assertions rewrite their baselines instead of comparing
+	 */
+	public static boolean isVisualUpdate() {
+		return snapshot.visualUpdate();
+	}
+
+	/**
+	 * Per-channel tolerance of visual comparisons
+	 */
+	public static int getVisualTolerance() {
+		return snapshot.visualTolerance();
+	}
+
+	/**
+	 * Retries after a flaky-looking failure; 0 disables retries
+	 */
+	public static int getRetryMax() {
+		return snapshot.retryMax();
+	}
+
+	/**
+	 * File accumulating per-method retry statistics
+	 */
+	public static String getRetryStats() {
+		return snapshot.retryStats();
 	}
 
-	private static String getProperty(String key) {
-		return properties == null ? null : properties.getProperty(key);
+	/**
+	 * Entries kept in the shared test data cache
+	 */
+	public static int getTestdataCacheSize() {
+		return snapshot.testdataCacheSize();
 	}
 
-	private static String getProperty(String key, String defaultValue) {
-		return properties == null ? defaultValue : properties.getProperty(key, defaultValue);
+	/**
+	 * Run artifact archive: off, zip or tar
+	 */
+	public static String getArtifactsArchive() {
+		return snapshot.artifactsArchive();
 	}
 }
@@ -0,0 +1,470 @@
+package com.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * Immutable, fully resolved configuration for one environment
+ *
+ * Layers, lowest precedence first:
+ *   1. built-in defaults
+ *   2. classpath resource config/&lt;env&gt;.properties
+ *   3. file &lt;config.dir&gt;/&lt;env&gt;.properties (default src/test/resources/config)
+ *   4. environment variables with the PW_ prefix, key upper-cased with dots as
+ *      underscores (PW_BASE_URL); unprefixed names such as USERNAME or BROWSER are
+ *      ignored, since the OS and desktop sessions set them for other purposes
+ *   5. system properties (-Dbase.url=...)
+ *
+ * Environment variables and system properties only override keys known from the
+ * lower layers. Typed values are parsed once, when the snapshot is built.
+ */
+public final class ConfigSnapshot {
+	static final String ENV_PREFIX = "PW_";
+	private static final Map<String, String> DEFAULTS = Map.ofEntries(
+		Map.entry("browser", "chromium"),
+		Map.entry("timeout", "30000"),
+		Map.entry("parallel.rows", "4"),
+		Map.entry("parallel.methods", "4"),
+		Map.entry("parallel.adaptive", "false"),
+		Map.entry("parallel.adaptive.reserve.mb", "512"),
+		Map.entry("trace", "retain-on-failure"),
+		Map.entry("browser.server", "off"),
+		Map.entry("browser.server.endpoint", ""),
+		Map.entry("browser.instances", "0"),
+		Map.entry("browser.contexts", "4"),
+		Map.entry("screenshot.format", "png"),
+		Map.entry("screenshot.failure.format", "jpeg"),
+		Map.entry("screenshot.quality", "80"),
+		Map.entry("screenshot.scale", "device"),
+		Map.entry("screenshot.dedup", "true"),
+		Map.entry("screenshot.writers", "2"),
+		Map.entry("screenshot.queue", "32"),
+		Map.entry("visual.baselines", "src/test/resources/baselines"),
+		Map.entry("visual.update", "false"),
+		Map.entry("visual.tolerance", "8"),
+		Map.entry("retry.max", "1"),
+		Map.entry("retry.stats", "test-history/flaky.tsv"),
+		Map.entry("testdata.cache.size", "32"),
+		Map.entry("artifacts.archive", "off"));
+
+	private final String environment;
+	private final Map<String, String> values;
+	private final List<String> sources;
+	private final Path file;
+	private final String baseUrl;
+	private final String userName;
+	private final String password;
+	private final String browser;
+	private final double timeout;
+	private final int parallelRows;
+	private final int parallelMethods;
+	private final boolean parallelAdaptive;
+	private final long parallelAdaptiveReserveMb;
+	private final String trace;
+	private final String browserServer;
+	private final String browserServerEndpoint;
+	private final int browserInstances;
+	private final int browserContexts;
+	private final String screenshotFormat;
+	private final String screenshotFailureFormat;
+	private final int screenshotQuality;
+	private final String screenshotScale;
+	private final boolean screenshotDedup;
+	private final int screenshotWriters;
+	private final int screenshotQueue;
+	private final String visualBaselines;
+	private final boolean visualUpdate;
+	private final int visualTolerance;
+	private final int retryMax;
+	private final String retryStats;
+	private final int testdataCacheSize;
+	private final String artifactsArchive;
+
+	private ConfigSnapshot(String environment, Map<String, String> values, List<String> sources, Path file) {
+		this.environment = environment;
+		this.values = Collections.unmodifiableMap(values);
+		this.sources = Collections.unmodifiableList(sources);
+		this.file = file;
+		this.baseUrl = values.get("base.url");
+		this.userName = values.get("username");
+		this.password = values.get("password");
+		this.browser = values.get("browser");
+		this.timeout = parse("timeout", Double::parseDouble);
+		this.parallelRows = parse("parallel.rows", Integer::parseInt);
+		this.parallelMethods = parse("parallel.methods", Integer::parseInt);
+		this.parallelAdaptive = parse("parallel.adaptive", ConfigSnapshot::flag);
+		this.parallelAdaptiveReserveMb = parse("parallel.adaptive.reserve.mb", Long::parseLong);
+		this.trace = parse("trace", ConfigSnapshot::traceMode);
+		this.browserServer = parse("browser.server", ConfigSnapshot::browserServerMode);
+		this.browserServerEndpoint = values.get("browser.server.endpoint").trim();
+		this.browserInstances = parse("browser.instances", Integer::parseInt);
+		this.browserContexts = parse("browser.contexts", Integer::parseInt);
+		this.screenshotFormat = parse("screenshot.format", ConfigSnapshot::imageFormat);
+		this.screenshotFailureFormat = parse("screenshot.failure.format", ConfigSnapshot::imageFormat);
+		this.screenshotQuality = parse("screenshot.quality", Integer::parseInt);
+		this.screenshotScale = parse("screenshot.scale", ConfigSnapshot::screenshotScale);
+		this.screenshotDedup = parse("screenshot.dedup", ConfigSnapshot::flag);
+		this.screenshotWriters = parse("screenshot.writers", Integer::parseInt);
+		this.screenshotQueue = parse("screenshot.queue", Integer::parseInt);
+		this.visualBaselines = values.get("visual.baselines").trim();
+		this.visualUpdate = parse("visual.update", ConfigSnapshot::flag);
+		this.visualTolerance = parse("visual.tolerance", Integer::parseInt);
+		this.retryMax = parse("retry.max", Integer::parseInt);
+		this.retryStats = values.get("retry.stats").trim();
+		this.testdataCacheSize = parse("testdata.cache.size", Integer::parseInt);
+		this.artifactsArchive = parse("artifacts.archive", ConfigSnapshot::archiveFormat);
+	}
+
+	/**
+	 * Resolve all layers for an environment
+	 * @param environment Environment name, e.g. "dev"
+	 * @param configDir Directory holding &lt;env&gt;.properties files
+	 * @param environmentVariables Usually System.getenv()
+	 * @param systemProperties Usually System.getProperties()
+	 */
+	static ConfigSnapshot resolve(String environment, Path configDir, Map<String, String> environmentVariables,
+			Properties systemProperties) throws IOException {
+		String fileName = environment + ".properties";
+		Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+		List<String> sources = new ArrayList<>();
+		sources.add("defaults");
+
+		try (InputStream input = ConfigSnapshot.class.getClassLoader().getResourceAsStream("config/" + fileName)) {
+			if (input != null) {
+				putAll(values, input);
+				sources.add("classpath:config/" + fileName);
+			}
+		}
+
+		Path file = configDir.resolve(fileName);
+		if (Files.isRegularFile(file)) {
+			try (InputStream input = Files.newInputStream(file)) {
+				putAll(values, input);
+			}
+			sources.add(file.toString());
+		}
+
+		for (String key : values.keySet().toArray(new String[0])) {
+			String fromEnvironment = environmentVariables.get(environmentName(key));
+			if (fromEnvironment != null) {
+				values.put(key, fromEnvironment);
+				if (!sources.contains("env")) {
+					sources.add("env");
+				}
+			}
+			String fromSystem = systemProperties.getProperty(key);
+			if (fromSystem != null) {
+				values.put(key, fromSystem);
+				if (!sources.contains("-D")) {
+					sources.add("-D");
+				}
+			}
+		}
+		return new ConfigSnapshot(environment, values, sources, file);
+	}
+
+	/**
+	 * Environment variable that overrides a key, e.g. base.url -&gt; PW_BASE_URL
+	 */
+	static String environmentName(String key) {
+		return ENV_PREFIX + key.toUpperCase(Locale.ROOT).replace('.', '_');
+	}
+
+	private static void putAll(Map<String, String> values, InputStream input) throws IOException {
+		Properties properties = new Properties();
+		properties.load(input);
+		for (String key : properties.stringPropertyNames()) {
+			values.put(key, properties.getProperty(key));
+		}
+	}
+
+	private static String traceMode(String value) {
+		switch (value) {
+			case "off":
+			case "on":
+			case "retain-on-failure":
+				return value;
+			default:
+				throw new IllegalArgumentException("expected off, on or retain-on-failure");
+		}
+	}
+
+	private static String browserServerMode(String value) {
+		switch (value) {
+			case "off":
+			case "shared":
+			case "connect":
+				return value;
+			default:
+				throw new IllegalArgumentException("expected off, shared or connect");
+		}
+	}
+
+	private static String imageFormat(String value) {
+		switch (value.toLowerCase(Locale.ROOT)) {
+			case "png":
+				return "png";
+			case "jpg":
+			case "jpeg":
+				return "jpeg";
+			default:
+				throw new IllegalArgumentException("expected png or jpeg");
+		}
+	}
+
+	private static String screenshotScale(String value) {
+		switch (value.toLowerCase(Locale.ROOT)) {
+			case "device":
+			case "css":
+				return value.toLowerCase(Locale.ROOT);
+			default:
+				throw new IllegalArgumentException("expected device or css");
+		}
+	}
+
+	private static String archiveFormat(String value) {
+		switch (value.toLowerCase(Locale.ROOT)) {
+			case "off":
+			case "zip":
+			case "tar":
+				return value.toLowerCase(Locale.ROOT);
+			default:
+				throw new IllegalArgumentException("expected off, zip or tar");
+		}
+	}
+
+	private static boolean flag(String value) {
+		switch (value.toLowerCase(Locale.ROOT)) {
+			case "true":
+				return true;
+			case "false":
+				return false;
+			default:
+				throw new IllegalArgumentException("expected true or false");
+		}
+	}
+
+	private <T> T parse(String key, Function<String, T> parser) {
+		String value = values.get(key);
+		try {
+			return parser.apply(value.trim());
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+		}
+	}
+
+	public String environment() {
+		return environment;
+	}
+
+	public String baseUrl() {
+		return baseUrl;
+	}
+
+	public String userName() {
+		return userName;
+	}
+
+	public String password() {
+		return password;
+	}
+
+	public String browser() {
+		return browser;
+	}
+
+	public double timeout() {
+		return timeout;
+	}
+
+	public int parallelRows() {
+		return parallelRows;
+	}
+
+	public int parallelMethods() {
+		return parallelMethods;
+	}
+
+	/**
+	 * Whether test starts are admitted by CPU and memory headroom
+	 */
+	public boolean parallelAdaptive() {
+		return parallelAdaptive;
+	}
+
+	/**
+	 * Memory in MB adaptive parallelism keeps free
+	 */
+	public long parallelAdaptiveReserveMb() {
+		return parallelAdaptiveReserveMb;
+	}
+
+	/**
+	 * Playwright tracing: off, on (keep every trace) or retain-on-failure
+	 */
+	public String trace() {
+		return trace;
+	}
+
+	/**
+	 * Browser server mode: off (launch in-process), shared (start or attach to a local
+	 * server shared by all JVMs) or connect (attach to browser.server.endpoint)
+	 */
+	public String browserServer() {
+		return browserServer;
+	}
+
+	/**
+	 * WebSocket endpoint used in connect mode, empty when unset
+	 */
+	public String browserServerEndpoint() {
+		return browserServerEndpoint;
+	}
+
+	/**
+	 * Shared browser processes contexts are spread over; 0 gives every thread its own browser
+	 */
+	public int browserInstances() {
+		return browserInstances;
+	}
+
+	/**
+	 * Maximum open contexts per shared browser when browserInstances() is set
+	 */
+	public int browserContexts() {
+		return browserContexts;
+	}
+
+	/**
+	 * Screenshot encoding, png or jpeg
+	 */
+	public String screenshotFormat() {
+		return screenshotFormat;
+	}
+
+	/**
+	 * Encoding of full-page failure screenshots, png or jpeg
+	 */
+	public String screenshotFailureFormat() {
+		return screenshotFailureFormat;
+	}
+
+	/**
+	 * JPEG quality from 0 to 100
+	 */
+	public int screenshotQuality() {
+		return screenshotQuality;
+	}
+
+	/**
+	 * Screenshot scale: device pixels, or css for one pixel per CSS pixel
+	 */
+	public String screenshotScale() {
+		return screenshotScale;
+	}
+
+	/**
+	 * Whether identical auto-named screenshots are stored once
+	 */
+	public boolean screenshotDedup() {
+		return screenshotDedup;
+	}
+
+	/**
+	 * Background threads writing screenshot files
+	 */
+	public int screenshotWriters() {
+		return screenshotWriters;
+	}
+
+	/**
+	 * Screenshots waiting to be written before the test thread writes its own
+	 */
+	public int screenshotQueue() {
+		return screenshotQueue;
+	}
+
+	/**
+	 * Directory holding visual regression baselines
+	 */
+	public String visualBaselines() {
+		return visualBaselines;
+	}
+
+	/**
+	 * Whether visual assertions accept current captures as new baselines
+	 */
+	public boolean visualUpdate() {
+		return visualUpdate;
+	}
+
+	/**
+	 * Per-channel difference a visual comparison tolerates
+	 */
+	public int visualTolerance() {
+		return visualTolerance;
+	}
+
+	/**
+	 * Retries after a flaky-looking failure; 0 disables retries
+	 */
+	public int retryMax() {
+		return retryMax;
+	}
+
+	/**
+	 * File accumulating per-method retry statistics
+	 */
+	public String retryStats() {
+		return retryStats;
+	}
+
+	/**
+	 * Entries kept in the shared test data cache
+	 */
+	public int testdataCacheSize() {
+		return testdataCacheSize;
+	}
+
+	/**
+	 * Run artifact archive: off, zip or tar
+	 */
+	public String artifactsArchive() {
+		return artifactsArchive;
+	}
+
+	/**
+	 * Get any resolved value, or null when no layer defines it
+	 */
+	public String get(String key) {
+		return values.get(key);
+	}
+
+	public String get(String key, String defaultValue) {
+		return values.getOrDefault(key, defaultValue);
+	}
+
+	/**
+	 * Layers that contributed values, lowest precedence first
+	 */
+	public List<String> sources() {
+		return sources;
+	}
+
+	/**
+	 * Environment file watched for changes (may not exist)
+	 */
+	Path file() {
+		return file;
+	}
+}
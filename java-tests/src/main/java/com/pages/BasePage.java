@@ -4,6 +4,7 @@ import java.nio.file.Paths;
 import org.slf4j.Logger;
 import com.logging.LogHelper;
 import com.microsoft.playwright.Page;
+import com.utils.ScreenshotWriter;
 
 public abstract class BasePage {
     protected static final Logger logger = LogHelper.getLogger(BasePage.class);
@@ -53,7 +54,7 @@ public abstract class BasePage {
 
     protected void takeScreenshot(String path) {
         logger.info("Taking screenshot and saving to: " + path);
-        page.screenshot(new Page.ScreenshotOptions().setPath(Paths.get(path)));
+        ScreenshotWriter.submit(Paths.get(path), page.screenshot());
     }
 
     protected void goBack() {
@@ -1,25 +1,17 @@
 package com.testdata;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.testdata.source.DataSource;
+import com.testdata.source.DataSources;
 import org.testng.annotations.DataProvider;
 
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 
 /**
  * Excel data provider for TestNG data-driven testing
  * Supports .xlsx files with Apache POI
+ * Workbooks are read once through the shared data-source cache
  */
 public class ExcelDataProvider {
-    private static final Logger logger = LoggerFactory.getLogger(ExcelDataProvider.class);
-    private static final String TEST_DATA_PATH = "src/test/resources/testdata/";
     
     /**
      * DataProvider that reads from Excel file
@@ -34,16 +26,35 @@ public class ExcelDataProvider {
     }
     
     /**
-     * DataProvider with custom file name
+     * Same rows as excelData, run concurrently
+     * BaseTest gives each row its own context, at most parallel.rows at once
      * 
-     * Usage: @Test(dataProvider = "customExcelData", dataProviderClass = ExcelDataProvider.class)
-     * Note: Pass file name via test annotation or method parameter
+     * Usage: @Test(dataProvider = "excelDataParallel", dataProviderClass = ExcelDataProvider.class)
+     */
+    @DataProvider(name = "excelDataParallel", parallel = true)
+    public static Object[][] getExcelDataParallel(Method method) {
+        return getExcelData(method);
+    }
+    
+    /**
+     * DataProvider with file, sheet and columns taken from the @DataSource annotation
+     * Falls back to testdata.xlsx / Sheet1 when the method is not annotated
+     * 
+     * Usage:
+     *   @DataSource(file = "logindata.xlsx", sheet = "Valid", columns = {"username", "password"})
+     *   @Test(dataProvider = "customExcelData", dataProviderClass = ExcelDataProvider.class)
      */
     @DataProvider(name = "customExcelData")
     public static Object[][] getCustomExcelData(Method method) {
-        // You can customize this to read file name from annotation
-        String fileName = "testdata.xlsx";
-        return readExcelData(fileName, "Sheet1");
+        return DataSources.provide(method, "testdata.xlsx", "Sheet1");
+    }
+    
+    /**
+     * Same rows as customExcelData, run concurrently
+     */
+    @DataProvider(name = "customExcelDataParallel", parallel = true)
+    public static Object[][] getCustomExcelDataParallel(Method method) {
+        return getCustomExcelData(method);
     }
     
     /**
@@ -53,121 +64,29 @@ public class ExcelDataProvider {
      * @return 2D Object array for TestNG DataProvider
      */
     public static Object[][] readExcelData(String fileName, String sheetName) {
-        String filePath = TEST_DATA_PATH + fileName;
-        logger.info("Reading Excel data from: {} - Sheet: {}", filePath, sheetName);
-        
-        List<Object[]> data = new ArrayList<>();
-        
-        try (FileInputStream fis = new FileInputStream(filePath);
-             Workbook workbook = new XSSFWorkbook(fis)) {
-            
-            Sheet sheet = workbook.getSheet(sheetName);
-            if (sheet == null) {
-                logger.error("Sheet '{}' not found in file: {}", sheetName, fileName);
-                return new Object[0][0];
-            }
-            
-            Iterator<Row> rowIterator = sheet.iterator();
-            
-            // Skip header row
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
-            
-            // Read data rows
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                Object[] rowData = new Object[row.getLastCellNum()];
-                
-                for (int i = 0; i < row.getLastCellNum(); i++) {
-                    Cell cell = row.getCell(i);
-                    rowData[i] = getCellValue(cell);
-                }
-                
-                data.add(rowData);
-            }
-            
-            logger.info("Successfully read {} rows from Excel", data.size());
-            
-        } catch (IOException e) {
-            logger.error("Failed to read Excel file: {}", e.getMessage());
-            throw new RuntimeException("Failed to read Excel data", e);
-        }
-        
-        return data.toArray(new Object[0][]);
+        return DataSources.table(fileName, sheetName).toArray();
     }
     
     /**
-     * Get cell value as appropriate Java type
+     * Read specific columns from Excel
+     * @param fileName Excel file name
+     * @param sheetName Sheet name
+     * @param columnIndexes Array of column indexes to read (0-based)
+     * @return 2D Object array with specified columns
      */
-    private static Object getCellValue(Cell cell) {
-        if (cell == null) {
-            return "";
-        }
-        
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue();
-                } else {
-                    return cell.getNumericCellValue();
-                }
-            case BOOLEAN:
-                return cell.getBooleanCellValue();
-            case FORMULA:
-                return cell.getCellFormula();
-            case BLANK:
-                return "";
-            default:
-                return "";
-        }
+    public static Object[][] readExcelColumns(String fileName, String sheetName, int[] columnIndexes) {
+        return DataSources.table(fileName, sheetName).select(columnIndexes);
     }
     
     /**
-     * Read specific columns from Excel
+     * Read columns by header name from Excel
      * @param fileName Excel file name
      * @param sheetName Sheet name
-     * @param columnIndexes Array of column indexes to read (0-based)
+     * @param columns Header names, in the order they should be returned
      * @return 2D Object array with specified columns
+     * @see DataSource
      */
-    public static Object[][] readExcelColumns(String fileName, String sheetName, int[] columnIndexes) {
-        String filePath = TEST_DATA_PATH + fileName;
-        List<Object[]> data = new ArrayList<>();
-        
-        try (FileInputStream fis = new FileInputStream(filePath);
-             Workbook workbook = new XSSFWorkbook(fis)) {
-            
-            Sheet sheet = workbook.getSheet(sheetName);
-            if (sheet == null) {
-                return new Object[0][0];
-            }
-            
-            Iterator<Row> rowIterator = sheet.iterator();
-            
-            // Skip header
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
-            
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                Object[] rowData = new Object[columnIndexes.length];
-                
-                for (int i = 0; i < columnIndexes.length; i++) {
-                    Cell cell = row.getCell(columnIndexes[i]);
-                    rowData[i] = getCellValue(cell);
-                }
-                
-                data.add(rowData);
-            }
-            
-        } catch (IOException e) {
-            logger.error("Failed to read Excel columns: {}", e.getMessage());
-            throw new RuntimeException("Failed to read Excel data", e);
-        }
-        
-        return data.toArray(new Object[0][]);
+    public static Object[][] readExcelColumns(String fileName, String sheetName, String... columns) {
+        return DataSources.table(fileName, sheetName).select(columns);
     }
 }
@@ -0,0 +1,133 @@
+package com.testdata;
+
+import com.config.ConfigManager;
+import com.testdata.source.CsvRow;
+import com.testdata.source.DataSource;
+import com.testdata.source.DataSources;
+import com.testdata.source.MappedCsvFile;
+import org.testng.annotations.DataProvider;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Memory-mapped CSV data provider for very large data-driven runs
+ * Rows are read straight from the mapped file and passed to the test as
+ * CharSequence views, so parameters must be declared as CharSequence
+ * (call toString() where a String is really needed).
+ *
+ * File and columns come from @DataSource; the default file is &lt;methodName&gt;.csv
+ *
+ * Usage:
+ *   @DataSource(file = "credentials.csv", columns = {"username", "password"})
+ *   @Test(dataProvider = "mappedCsv", dataProviderClass = MappedCsvDataProvider.class)
+ *   public void testLogin(CharSequence username, CharSequence password) { ... }
+ */
+public class MappedCsvDataProvider {
+
+    /**
+     * Rows in file order, fed lazily one at a time
+     */
+    @DataProvider(name = "mappedCsv")
+    public static Iterator<Object[]> getMappedCsvData(Method method) {
+        return rows(method);
+    }
+
+    /**
+     * Same rows, invoked concurrently (see data-provider-thread-count in testng.xml)
+     * The file is split into one line-aligned range per parallel.rows, each mapped and
+     * scanned on its own, and rows are taken from the ranges in turn, so rows running
+     * side by side come from different mappings. Row order is not file order, and quoted
+     * fields must not contain line breaks.
+     */
+    @DataProvider(name = "mappedCsvParallel", parallel = true)
+    public static Iterator<Object[]> getMappedCsvDataParallel(Method method) {
+        MappedCsvFile file = file(method);
+        int[] columns = columns(method, file);
+        List<MappedCsvFile.Range> ranges;
+        try {
+            ranges = file.split(ConfigManager.getParallelRows());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read test data", e);
+        }
+        List<Iterator<CsvRow>> iterators = new ArrayList<>(ranges.size());
+        for (MappedCsvFile.Range range : ranges) {
+            iterators.add(range.rows());
+        }
+
+        // TestNG drains a provider's iterator on the thread invoking the method and hands
+        // each row to a pool thread, so no lock is needed here
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                for (int i = 0; i < iterators.size(); i++) {
+                    if (iterators.get((next + i) % iterators.size()).hasNext()) {
+                        next = (next + i) % iterators.size();
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                CsvRow row = iterators.get(next).next();
+                next = (next + 1) % iterators.size();
+                return row.toArray(columns);
+            }
+        };
+    }
+
+    private static Iterator<Object[]> rows(Method method) {
+        MappedCsvFile file = file(method);
+        int[] columns = columns(method, file);
+        Iterator<CsvRow> rows;
+        try {
+            rows = file.iterator();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read test data", e);
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return rows.next().toArray(columns);
+            }
+        };
+    }
+
+    private static MappedCsvFile file(Method method) {
+        DataSource source = method.getAnnotation(DataSource.class);
+        String fileName = source == null || source.file().isEmpty() ? method.getName() + ".csv" : source.file();
+        return DataSources.mappedCsv(fileName);
+    }
+
+    private static int[] columns(Method method, MappedCsvFile file) {
+        DataSource source = method.getAnnotation(DataSource.class);
+        return source == null ? null : columnIndexes(file, source.columns());
+    }
+
+    private static int[] columnIndexes(MappedCsvFile file, String[] columns) {
+        if (columns.length == 0) {
+            return null;
+        }
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indexes[i] = file.columnIndex(columns[i]);
+        }
+        return indexes;
+    }
+}
@@ -1,25 +1,42 @@
 package com.testdata;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.testdata.source.DataFiles;
+import com.testdata.source.DataSources;
+import com.utils.DataGeneratorUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.annotations.DataProvider;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Centralized test data management utility
  * Supports JSON, properties, and programmatic test data
+ * File lookup and caching are delegated to the com.testdata.source layer
  */
 public class TestDataManager {
     private static final Logger logger = LoggerFactory.getLogger(TestDataManager.class);
-    private static final String TEST_DATA_PATH = "src/test/resources/testdata/";
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    
+    /**
+     * Get the cached ObjectReader for a type
+     * Readers are immutable and thread-safe, so one per type is shared by all callers
+     */
+    static ObjectReader readerFor(Class<?> clazz) {
+        return readers.computeIfAbsent(clazz, objectMapper::readerFor);
+    }
     
     /**
      * Load test data from JSON file
@@ -28,22 +45,9 @@ public class TestDataManager {
      * @return Deserialized object
      */
     public static <T> T loadJsonData(String fileName, Class<T> clazz) {
-        try {
-            String filePath = TEST_DATA_PATH + fileName;
-            logger.info("Loading test data from: {}", filePath);
-            
-            File file = new File(filePath);
-            if (!file.exists()) {
-                // Try loading from classpath
-                InputStream inputStream = TestDataManager.class.getClassLoader()
-                    .getResourceAsStream("testdata/" + fileName);
-                if (inputStream != null) {
-                    return objectMapper.readValue(inputStream, clazz);
-                }
-                throw new IOException("File not found: " + fileName);
-            }
-            
-            return objectMapper.readValue(file, clazz);
+        logger.info("Loading test data from: {}", fileName);
+        try (InputStream inputStream = DataFiles.open(fileName)) {
+            return readerFor(clazz).readValue(inputStream);
         } catch (IOException e) {
             logger.error("Failed to load test data from {}: {}", fileName, e.getMessage());
             throw new RuntimeException("Failed to load test data", e);
@@ -52,60 +56,91 @@ public class TestDataManager {
     
     /**
      * Load test data as Map from JSON file
+     * Returns a fresh, modifiable copy on every call
      * @param fileName JSON file name
      * @return Map representation of JSON data
      */
-    @SuppressWarnings("unchecked")
     public static Map<String, Object> loadJsonDataAsMap(String fileName) {
-        try {
-            String filePath = TEST_DATA_PATH + fileName;
-            File file = new File(filePath);
-            
-            if (!file.exists()) {
-                InputStream inputStream = TestDataManager.class.getClassLoader()
-                    .getResourceAsStream("testdata/" + fileName);
-                if (inputStream != null) {
-                    return objectMapper.readValue(inputStream, Map.class);
-                }
-            }
-            
-            return objectMapper.readValue(file, Map.class);
+        try (InputStream inputStream = DataFiles.open(fileName)) {
+            return readerFor(Map.class).readValue(inputStream);
         } catch (IOException e) {
             logger.error("Failed to load JSON data as Map: {}", e.getMessage());
             return new HashMap<>();
         }
     }
     
+    /**
+     * DataProvider reading JSON records selected by @DataSource
+     * Defaults to &lt;methodName&gt;.json with the root array as rows
+     * 
+     * Usage:
+     *   @DataSource(file = "webinputs.json", sheet = "webInputs", columns = {"inputText", "expectedValue"})
+     *   @Test(dataProvider = "jsonData", dataProviderClass = TestDataManager.class)
+     */
+    @DataProvider(name = "jsonData")
+    public static Object[][] getJsonData(Method method) {
+        return DataSources.provide(method, method.getName() + ".json", "");
+    }
+    
+    /**
+     * Same rows as jsonData, run concurrently
+     */
+    @DataProvider(name = "jsonDataParallel", parallel = true)
+    public static Object[][] getJsonDataParallel(Method method) {
+        return getJsonData(method);
+    }
+    
     /**
      * Get specific value from JSON test data
      * @param fileName JSON file name
      * @param key Key to retrieve
-     * @return Value as String
+     * @return Value as String, or null when the key or a readable file is missing
      */
     public static String getJsonValue(String fileName, String key) {
-        Map<String, Object> data = loadJsonDataAsMap(fileName);
-        Object value = data.get(key);
-        return value != null ? value.toString() : null;
+        JsonNode root = jsonTree(fileName);
+        return root == null ? null : asString(root.get(key));
     }
     
     /**
      * Get nested value from JSON using dot notation
      * Example: getNestedValue("users.json", "admin.username")
+     * Reads the shared parsed tree, so the file is only parsed once per run
+     * @return Value as String, or null when the path or a readable file is missing
      */
     public static String getNestedValue(String fileName, String path) {
-        Map<String, Object> data = loadJsonDataAsMap(fileName);
-        String[] keys = path.split("\\.");
-        
-        Object current = data;
-        for (String key : keys) {
-            if (current instanceof Map) {
-                current = ((Map<?, ?>) current).get(key);
-            } else {
+        JsonNode current = jsonTree(fileName);
+        int start = 0;
+        while (current != null && start <= path.length()) {
+            int end = path.indexOf('.', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            current = current.isObject() ? current.get(path.substring(start, end)) : null;
+            start = end + 1;
+        }
+        return asString(current);
+    }
+    
+    /**
+     * Shared tree of a JSON file, or null when it cannot be read (already logged),
+     * matching loadJsonDataAsMap() returning an empty map
+     */
+    private static JsonNode jsonTree(String fileName) {
+        try {
+            return DataSources.json(fileName);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException) {
                 return null;
             }
+            throw e;
         }
-        
-        return current != null ? current.toString() : null;
+    }
+    
+    private static String asString(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
     }
     
     /**
@@ -115,7 +150,7 @@ public class TestDataManager {
      */
     public static String loadTextData(String fileName) {
         try {
-            String filePath = TEST_DATA_PATH + fileName;
+            String filePath = DataFiles.TEST_DATA_PATH + fileName;
             logger.info("Loading text data from: {}", filePath);
             return new String(Files.readAllBytes(Paths.get(filePath)));
         } catch (IOException e) {
@@ -131,13 +166,16 @@ public class TestDataManager {
      */
     public static void saveJsonData(String fileName, Object data) {
         try {
-            String filePath = TEST_DATA_PATH + fileName;
+            String filePath = DataFiles.TEST_DATA_PATH + fileName;
             logger.info("Saving test data to: {}", filePath);
             
             File file = new File(filePath);
             file.getParentFile().mkdirs();
             
             objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, data);
+            // Later reads of this file must see the new contents, not the cached ones
+            DataSources.evict(fileName);
+            TestDataRepository.evict(fileName);
             logger.info("Test data saved successfully");
         } catch (IOException e) {
             logger.error("Failed to save test data: {}", e.getMessage());
@@ -147,17 +185,12 @@ public class TestDataManager {
     
     /**
      * Generate random test data
+     * Backed by DataGeneratorUtils, so values are thread-local and follow the run seed
      */
     public static class RandomData {
-        private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
         
         public static String randomString(int length) {
-            StringBuilder sb = new StringBuilder(length);
-            for (int i = 0; i < length; i++) {
-                int index = (int) (Math.random() * ALPHANUMERIC.length());
-                sb.append(ALPHANUMERIC.charAt(index));
-            }
-            return sb.toString();
+            return DataGeneratorUtils.randomString(length);
         }
         
         public static String randomEmail() {
@@ -169,7 +202,7 @@ public class TestDataManager {
         }
         
         public static int randomNumber(int min, int max) {
-            return min + (int) (Math.random() * (max - min + 1));
+            return DataGeneratorUtils.randomInt(min, max);
         }
     }
 }
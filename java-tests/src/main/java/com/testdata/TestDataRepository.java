@@ -0,0 +1,187 @@
+package com.testdata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.testdata.source.DataSources;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Typed, cached access to JSON test data
+ * Each file is parsed once; keyed collections are bound to model objects
+ * and indexed on first use so later lookups are a single hash probe.
+ *
+ * Usage:
+ *   TestDataRepository repo = TestDataRepository.of("users.json");
+ *   LoginUser user = repo.get(LoginUser.class, "loginUsers.validUser");
+ */
+public final class TestDataRepository {
+    private static final Logger logger = LoggerFactory.getLogger(TestDataRepository.class);
+    private static final Map<String, TestDataRepository> repositories = new ConcurrentHashMap<>();
+
+    private final String fileName;
+    private final JsonNode root;
+    private final Map<IndexKey, Map<String, ?>> indexes = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<String, Object>> resolved = new ConcurrentHashMap<>();
+
+    private TestDataRepository(String fileName, JsonNode root) {
+        this.fileName = fileName;
+        this.root = root;
+    }
+
+    /**
+     * Get the repository for a JSON file, loading it on first access
+     * @param fileName JSON file name (without path)
+     */
+    public static TestDataRepository of(String fileName) {
+        return repositories.computeIfAbsent(fileName, TestDataRepository::load);
+    }
+
+    /**
+     * Forget the repository of a file so the next of() reads it again
+     */
+    static void evict(String fileName) {
+        repositories.remove(fileName);
+    }
+
+    private static TestDataRepository load(String fileName) {
+        logger.info("Creating test data repository for: {}", fileName);
+        return new TestDataRepository(fileName, DataSources.json(fileName));
+    }
+
+    /**
+     * Get a single entry from a keyed collection using dot notation
+     * Example: get(LoginUser.class, "loginUsers.validUser")
+     * @param type Model class to bind into
+     * @param path Collection path followed by the entry key
+     * @return Bound model object
+     */
+    public <T> T get(Class<T> type, String path) {
+        Map<String, Object> byPath = resolved.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+        Object cached = byPath.get(path);
+        if (cached == null) {
+            cached = lookup(type, path);
+            byPath.put(path, cached);
+        }
+        return type.cast(cached);
+    }
+
+    private <T> T lookup(Class<T> type, String path) {
+        int split = path.lastIndexOf('.');
+        if (split < 0) {
+            return bind(type, resolve(path), path);
+        }
+        T value = index(type, path.substring(0, split)).get(path.substring(split + 1));
+        if (value == null) {
+            throw new IllegalArgumentException("No test data at '" + path + "' in " + fileName);
+        }
+        return value;
+    }
+
+    /**
+     * Bind every entry of a JSON object, keyed by field name
+     * Example: index(LoginUser.class, "loginUsers")
+     * @param type Model class to bind into
+     * @param path Dot path to the JSON object
+     * @return Unmodifiable map in file order
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> index(Class<T> type, String path) {
+        return (Map<String, T>) indexes.computeIfAbsent(new IndexKey(type, path, null), key -> {
+            JsonNode node = resolve(path);
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("'" + path + "' in " + fileName + " is not an object");
+            }
+            Map<String, T> entries = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                entries.put(field.getKey(), bind(type, field.getValue(), path + "." + field.getKey()));
+            }
+            return Collections.unmodifiableMap(entries);
+        });
+    }
+
+    /**
+     * Bind every element of a JSON array, keyed by a property of the model
+     * Example: index(WebInputData.class, "webInputs", WebInputData::testName)
+     * @param type Model class to bind into
+     * @param path Dot path to the JSON array
+     * @param keyExtractor Function producing the lookup key for each element
+     * @return Unmodifiable map in file order
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> index(Class<T> type, String path, Function<? super T, String> keyExtractor) {
+        return (Map<String, T>) indexes.computeIfAbsent(new IndexKey(type, path, keyExtractor), key -> {
+            Map<String, T> entries = new LinkedHashMap<>();
+            for (T item : list(type, path)) {
+                String itemKey = keyExtractor.apply(item);
+                if (entries.putIfAbsent(itemKey, item) != null) {
+                    throw new IllegalArgumentException("Duplicate key '" + itemKey + "' in " + fileName + " at " + path);
+                }
+            }
+            return Collections.unmodifiableMap(entries);
+        });
+    }
+
+    /**
+     * Bind every element of a JSON array
+     * Example: list(WebInputData.class, "webInputs")
+     * @param type Model class to bind into
+     * @param path Dot path to the JSON array
+     * @return Unmodifiable list in file order
+     */
+    public <T> List<T> list(Class<T> type, String path) {
+        JsonNode node = resolve(path);
+        if (!node.isArray()) {
+            throw new IllegalArgumentException("'" + path + "' in " + fileName + " is not an array");
+        }
+        List<T> items = new ArrayList<>(node.size());
+        for (int i = 0; i < node.size(); i++) {
+            items.add(bind(type, node.get(i), path + "[" + i + "]"));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    private JsonNode resolve(String path) {
+        JsonNode current = root;
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('.', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            current = current.get(path.substring(start, end));
+            if (current == null) {
+                throw new IllegalArgumentException("No test data at '" + path + "' in " + fileName);
+            }
+            start = end + 1;
+        }
+        return current;
+    }
+
+    private <T> T bind(Class<T> type, JsonNode node, String path) {
+        try {
+            return TestDataManager.readerFor(type).readValue(node);
+        } catch (IOException e) {
+            logger.error("Failed to bind {} at '{}' in {}: {}", type.getSimpleName(), path, fileName, e.getMessage());
+            throw new RuntimeException("Failed to bind test data", e);
+        }
+    }
+
+    /**
+     * Identifies one bound view of a path; the key extractor is compared by identity,
+     * so pass a stable method reference rather than a fresh lambda per call
+     */
+    private record IndexKey(Class<?> type, String path, Function<?, String> keyExtractor) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.testdata.generator;
+
+import com.testdata.source.DataFiles;
+
+/**
+ * Output formats supported by DataSetGenerator
+ */
+public enum DataSetFormat {
+    CSV,
+    JSON_LINES,
+    XLSX;
+
+    /**
+     * Pick the format from a file extension: .csv, .jsonl / .ndjson or .xlsx
+     */
+    public static DataSetFormat fromFileName(String fileName) {
+        switch (DataFiles.extension(fileName)) {
+            case "csv":
+                return CSV;
+            case "jsonl":
+            case "ndjson":
+                return JSON_LINES;
+            case "xlsx":
+                return XLSX;
+            default:
+                throw new IllegalArgumentException("Unsupported data set format: " + fileName);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.testdata.generator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.utils.DataGeneratorUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams large synthetic data sets to CSV, JSON-lines or xlsx files
+ *
+ * Rows are generated in fixed-size chunks on a worker pool and written in order by the
+ * calling thread. At most two chunks per worker are in flight, and xlsx output goes
+ * through a SXSSF window, so memory use does not grow with the row count.
+ *
+ * Each chunk reseeds its worker from the run seed, the generator name and the chunk
+ * number, so the same -Ddata.seed, name and chunk size reproduce the same file.
+ *
+ * Usage:
+ *   new DataSetGenerator(DataSetSchema.people())
+ *       .write(1_000_000, Paths.get("target/people.csv"));
+ */
+public class DataSetGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(DataSetGenerator.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+    private static final int XLSX_ROWS_PER_SHEET = 1_048_575; // Excel row limit minus header
+    private static final int XLSX_WINDOW = 100;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final DataSetSchema schema;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String name = "dataset";
+
+    public DataSetGenerator(DataSetSchema schema) {
+        if (schema.columnCount() == 0) {
+            throw new IllegalArgumentException("Schema has no columns");
+        }
+        this.schema = schema;
+    }
+
+    /**
+     * Rows generated per task (default 10,000)
+     */
+    public DataSetGenerator chunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Worker threads generating chunks (default: available processors)
+     */
+    public DataSetGenerator threads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Name mixed into the chunk seeds, so data sets from one run differ from each other
+     */
+    public DataSetGenerator name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Write rows to a file, choosing the format from its extension
+     * @return the target path
+     */
+    public Path write(long rows, Path target) {
+        return write(rows, target, DataSetFormat.fromFileName(target.getFileName().toString()));
+    }
+
+    /**
+     * Write rows to a file in the given format
+     * @return the target path
+     */
+    public Path write(long rows, Path target, DataSetFormat format) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Row count must not be negative: " + rows);
+        }
+        long start = System.nanoTime();
+        long chunks = (rows + chunkSize - 1) / chunkSize;
+        int maxInFlight = threads * 2;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, workerFactory());
+        ArrayDeque<Future<Object>> pending = new ArrayDeque<>(maxInFlight);
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (Sink sink = openSink(format, target)) {
+                for (long chunk = 0; chunk < chunks; chunk++) {
+                    long first = chunk * chunkSize;
+                    int size = (int) Math.min(chunkSize, rows - first);
+                    long chunkNumber = chunk;
+                    pending.add(pool.submit(() -> sink.encode(generate(chunkNumber, size))));
+                    if (pending.size() >= maxInFlight) {
+                        sink.write(pending.poll().get());
+                    }
+                }
+                while (!pending.isEmpty()) {
+                    sink.write(pending.poll().get());
+                }
+            }
+        } catch (IOException | ExecutionException e) {
+            logger.error("Failed to write data set {}: {}", target, e.getMessage());
+            throw new RuntimeException("Failed to write data set: " + target, e instanceof ExecutionException ? e.getCause() : e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing data set: " + target, e);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            pool.shutdownNow();
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Generated {} rows to {} ({}) in {} ms ({} rows/s)",
+            rows, target, format, millis, rows * 1000 / millis);
+        return target;
+    }
+
+    private Object[][] generate(long chunk, int size) {
+        DataGeneratorUtils.seedForTest(name + ":" + chunkSize + ":" + chunk);
+        Object[][] rows = new Object[size][];
+        for (int i = 0; i < size; i++) {
+            rows[i] = schema.nextRow();
+        }
+        return rows;
+    }
+
+    private static ThreadFactory workerFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "dataset-generator-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private Sink openSink(DataSetFormat format, Path target) throws IOException {
+        switch (format) {
+            case CSV:
+                return new CsvSink(target, schema.columnNames());
+            case JSON_LINES:
+                return new JsonLinesSink(target, schema.columnNames());
+            case XLSX:
+                return new XlsxSink(target, schema.columnNames());
+            default:
+                throw new IllegalArgumentException("Unsupported data set format: " + format);
+        }
+    }
+
+    /**
+     * Encodes chunks on worker threads and appends them in order on the writing thread
+     */
+    private interface Sink extends Closeable {
+        Object encode(Object[][] rows) throws IOException;
+
+        void write(Object chunk) throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV; chunks are encoded to UTF-8 bytes in parallel
+     */
+    private static final class CsvSink implements Sink {
+        private final OutputStream out;
+
+        CsvSink(Path target, List<String> columns) throws IOException {
+            out = Files.newOutputStream(target);
+            StringBuilder header = new StringBuilder();
+            appendRow(header, columns.toArray());
+            out.write(header.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Object encode(Object[][] rows) {
+            StringBuilder sb = new StringBuilder(rows.length * 64);
+            for (Object[] row : rows) {
+                appendRow(sb, row);
+            }
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static void appendRow(StringBuilder sb, Object[] row) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendField(sb, row[i] == null ? "" : row[i].toString());
+            }
+            sb.append("\r\n");
+        }
+
+        private static void appendField(StringBuilder sb, String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                sb.append(value);
+                return;
+            }
+            sb.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    sb.append('"');
+                }
+                sb.append(c);
+            }
+            sb.append('"');
+        }
+
+        @Override
+        public void write(Object chunk) throws IOException {
+            out.write((byte[]) chunk);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * One JSON object per line; chunks are serialized in parallel
+     */
+    private static final class JsonLinesSink implements Sink {
+        private final OutputStream out;
+        private final SerializedString[] fieldNames;
+
+        JsonLinesSink(Path target, List<String> columns) throws IOException {
+            out = Files.newOutputStream(target);
+            fieldNames = new SerializedString[columns.size()];
+            for (int i = 0; i < fieldNames.length; i++) {
+                fieldNames[i] = new SerializedString(columns.get(i));
+            }
+        }
+
+        @Override
+        public Object encode(Object[][] rows) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.length * 128);
+            try (JsonGenerator json = JSON.createGenerator(bytes)) {
+                json.setRootValueSeparator(null);
+                for (Object[] row : rows) {
+                    json.writeStartObject();
+                    for (int i = 0; i < row.length; i++) {
+                        json.writeFieldName(fieldNames[i]);
+                        writeValue(json, row[i]);
+                    }
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+            }
+            return bytes.toByteArray();
+        }
+
+        private static void writeValue(JsonGenerator json, Object value) throws IOException {
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Boolean) {
+                json.writeBoolean((Boolean) value);
+            } else if (value instanceof Integer || value instanceof Long) {
+                json.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Number) {
+                json.writeNumber(((Number) value).doubleValue());
+            } else {
+                json.writeString(value.toString());
+            }
+        }
+
+        @Override
+        public void write(Object chunk) throws IOException {
+            out.write((byte[]) chunk);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Streaming workbook: only the last 100 rows stay in memory, the rest are flushed
+     * to compressed temp files; a new sheet starts when one reaches Excel's row limit
+     */
+    private static final class XlsxSink implements Sink {
+        private final Path target;
+        private final List<String> columns;
+        private final SXSSFWorkbook workbook;
+        private SXSSFSheet sheet;
+        private int nextRow;
+
+        XlsxSink(Path target, List<String> columns) {
+            this.target = target;
+            this.columns = columns;
+            workbook = new SXSSFWorkbook(XLSX_WINDOW);
+            workbook.setCompressTempFiles(true);
+            newSheet();
+        }
+
+        private void newSheet() {
+            sheet = workbook.createSheet("Sheet" + (workbook.getNumberOfSheets() + 1));
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < columns.size(); c++) {
+                header.createCell(c).setCellValue(columns.get(c));
+            }
+            nextRow = 1;
+        }
+
+        @Override
+        public Object encode(Object[][] rows) {
+            return rows;
+        }
+
+        @Override
+        public void write(Object chunk) {
+            for (Object[] values : (Object[][]) chunk) {
+                if (nextRow > XLSX_ROWS_PER_SHEET) {
+                    newSheet();
+                }
+                Row row = sheet.createRow(nextRow++);
+                for (int c = 0; c < values.length; c++) {
+                    setCell(row.createCell(c), values[c]);
+                }
+            }
+        }
+
+        private static void setCell(Cell cell, Object value) {
+            if (value == null) {
+                return;
+            }
+            if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                cell.setCellValue((Boolean) value);
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (OutputStream out = Files.newOutputStream(target)) {
+                workbook.write(out);
+            } finally {
+                workbook.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.testdata.generator;
+
+import com.utils.DataGeneratorUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Column layout of a synthetic data set
+ * Each column draws its values from a supplier, typically a DataGeneratorUtils method.
+ * Suppliers run on generator worker threads and must be thread-safe.
+ *
+ * Usage:
+ *   DataSetSchema schema = new DataSetSchema()
+ *       .column("username", DataGeneratorUtils::randomUsername)
+ *       .column("age", () -> DataGeneratorUtils.randomInt(18, 90));
+ */
+public class DataSetSchema {
+    private final List<String> names = new ArrayList<>();
+    private final List<Supplier<?>> generators = new ArrayList<>();
+
+    /**
+     * Add a column
+     * @param name Header name
+     * @param generator Produces one value per row: String, Number or Boolean
+     * @return this schema, for chaining
+     */
+    public DataSetSchema column(String name, Supplier<?> generator) {
+        if (names.contains(name)) {
+            throw new IllegalArgumentException("Duplicate column: " + name);
+        }
+        names.add(name);
+        generators.add(generator);
+        return this;
+    }
+
+    /**
+     * Realistic person records: name, email, phone, company and website
+     */
+    public static DataSetSchema people() {
+        return new DataSetSchema()
+            .column("firstName", DataGeneratorUtils::randomFirstName)
+            .column("lastName", DataGeneratorUtils::randomLastName)
+            .column("email", DataGeneratorUtils::randomEmail)
+            .column("phone", DataGeneratorUtils::randomPhoneNumber)
+            .column("company", DataGeneratorUtils::randomCompanyName)
+            .column("website", DataGeneratorUtils::randomUrl);
+    }
+
+    /**
+     * Login credential matrix: username, password and expected result
+     */
+    public static DataSetSchema credentials() {
+        return new DataSetSchema()
+            .column("username", DataGeneratorUtils::randomUsername)
+            .column("password", () -> DataGeneratorUtils.randomPassword(12, true))
+            .column("expectedResult", () -> "failure");
+    }
+
+    public List<String> columnNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    public int columnCount() {
+        return names.size();
+    }
+
+    /**
+     * Generate one row of values
+     */
+    Object[] nextRow() {
+        Object[] row = new Object[generators.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = generators.get(i).get();
+        }
+        return row;
+    }
+}
@@ -0,0 +1,120 @@
+package com.testdata.source;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Zero-copy view of one CSV field inside a memory-mapped buffer
+ *
+ * ASCII fields are served straight from the mapped bytes; a String is only
+ * built when toString() is called, the field holds non-ASCII UTF-8 bytes,
+ * or it is a quoted field containing "" escapes.
+ */
+public final class CsvField implements CharSequence {
+    private static final int UNKNOWN = 0;
+    private static final int ASCII = 1;
+    private static final int DECODED = 2;
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int end;
+    private final boolean escaped;
+    private int state = UNKNOWN;
+    private String decoded;
+
+    CsvField(ByteBuffer buffer, int start, int end, boolean escaped) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.escaped = escaped;
+    }
+
+    @Override
+    public int length() {
+        return isAscii() ? end - start : decoded.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (isAscii()) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) buffer.get(start + index);
+        }
+        return decoded.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (isAscii()) {
+            if (from < 0 || to > end - start || from > to) {
+                throw new IndexOutOfBoundsException("[" + from + ", " + to + ")");
+            }
+            return new CsvField(buffer, start + from, start + to, false);
+        }
+        return decoded.subSequence(from, to);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return start == end;
+    }
+
+    /**
+     * Compare with another character sequence without allocating
+     */
+    public boolean contentEquals(CharSequence other) {
+        int length = length();
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (isAscii()) {
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        return decoded;
+    }
+
+    /**
+     * Decide once whether the bytes can be exposed directly
+     * Views are confined to the thread that reads the row, so no synchronization is needed
+     */
+    private boolean isAscii() {
+        if (state == UNKNOWN) {
+            state = ASCII;
+            if (escaped) {
+                state = DECODED;
+            } else {
+                for (int i = start; i < end; i++) {
+                    if (buffer.get(i) < 0) {
+                        state = DECODED;
+                        break;
+                    }
+                }
+            }
+            if (state == DECODED) {
+                decoded = decode();
+            }
+        }
+        return state == ASCII;
+    }
+
+    private String decode() {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        return escaped ? text.replace("\"\"", "\"") : text;
+    }
+}
@@ -0,0 +1,103 @@
+package com.testdata.source;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One record of a memory-mapped CSV file
+ * Field boundaries are located on first access, and fields are exposed as
+ * CsvField views rather than Strings.
+ */
+public final class CsvRow {
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int end;
+    private int[] bounds;
+    private int fieldCount;
+
+    CsvRow(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Get the number of fields in this row
+     */
+    public int fieldCount() {
+        parse();
+        return fieldCount;
+    }
+
+    /**
+     * Get a field view; fields past the end of a short row are empty
+     * @param index 0-based field index
+     */
+    public CharSequence field(int index) {
+        parse();
+        if (index >= fieldCount) {
+            return "";
+        }
+        int from = bounds[index * 2];
+        int to = bounds[index * 2 + 1];
+        boolean quoted = to - from >= 2 && buffer.get(from) == '"' && buffer.get(to - 1) == '"';
+        if (!quoted) {
+            return new CsvField(buffer, from, to, false);
+        }
+        boolean escaped = false;
+        for (int i = from + 1; i < to - 1; i++) {
+            if (buffer.get(i) == '"') {
+                escaped = true;
+                break;
+            }
+        }
+        return new CsvField(buffer, from + 1, to - 1, escaped);
+    }
+
+    /**
+     * Get the selected fields in TestNG DataProvider shape
+     * @param columnIndexes 0-based indexes; null selects every field
+     */
+    public Object[] toArray(int[] columnIndexes) {
+        int count = columnIndexes == null ? fieldCount() : columnIndexes.length;
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = field(columnIndexes == null ? i : columnIndexes[i]);
+        }
+        return values;
+    }
+
+    private void parse() {
+        if (bounds != null) {
+            return;
+        }
+        int[] found = new int[16];
+        int count = 0;
+        int fieldStart = start;
+        boolean quoted = false;
+        for (int i = start; i <= end; i++) {
+            byte b = i < end ? buffer.get(i) : (byte) ',';
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == ',' && !quoted) {
+                if (count * 2 + 2 > found.length) {
+                    found = Arrays.copyOf(found, found.length * 2);
+                }
+                found[count * 2] = fieldStart;
+                found[count * 2 + 1] = i;
+                count++;
+                fieldStart = i + 1;
+            }
+        }
+        fieldCount = count;
+        bounds = found;
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
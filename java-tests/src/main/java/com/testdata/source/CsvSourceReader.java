@@ -0,0 +1,84 @@
+package com.testdata.source;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads comma-separated files as tables of Strings
+ * Supports RFC 4180 quoting: quoted fields may contain commas, line breaks and "" escapes.
+ */
+public class CsvSourceReader implements DataSourceReader {
+
+    @Override
+    public boolean supports(String fileName) {
+        return "csv".equals(DataFiles.extension(fileName));
+    }
+
+    @Override
+    public DataTable read(InputStream input, String fileName, String sheet) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> headers = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+
+        List<String> record = new ArrayList<>();
+        while (readRecord(reader, record)) {
+            if (headers.isEmpty()) {
+                // Drop the byte order mark that spreadsheet exports prepend
+                if (record.get(0).startsWith("\uFEFF")) {
+                    record.set(0, record.get(0).substring(1));
+                }
+                headers.addAll(record);
+            } else if (!(record.size() == 1 && record.get(0).isEmpty())) {
+                rows.add(record.toArray());
+            }
+            record.clear();
+        }
+        return new DataTable(headers, rows);
+    }
+
+    /**
+     * Read one record into the list
+     * @return false once the end of input is reached with nothing read
+     */
+    private static boolean readRecord(Reader reader, List<String> record) throws IOException {
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (any) {
+            record.add(field.toString());
+        }
+        return any;
+    }
+}
@@ -0,0 +1,79 @@
+package com.testdata.source;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Single place for locating test data files
+ * Looks under the test data directory first, then falls back to the classpath
+ */
+public final class DataFiles {
+    public static final String TEST_DATA_PATH = "src/test/resources/testdata/";
+    private static final String CLASSPATH_PREFIX = "testdata/";
+
+    private DataFiles() {}
+
+    /**
+     * Get the on-disk location of a test data file
+     * @param fileName File name (without path)
+     */
+    public static File file(String fileName) {
+        return new File(TEST_DATA_PATH + fileName);
+    }
+
+    /**
+     * Get a test data file as a path on disk, for APIs that need random access
+     * Classpath resources are accepted only when they are plain files (not inside a jar).
+     * @param fileName File name (without path)
+     */
+    public static Path path(String fileName) throws IOException {
+        File file = file(fileName);
+        if (file.exists()) {
+            return file.toPath();
+        }
+        URL resource = DataFiles.class.getClassLoader().getResource(CLASSPATH_PREFIX + fileName);
+        if (resource == null) {
+            throw new IOException("File not found: " + fileName);
+        }
+        if (!"file".equals(resource.getProtocol())) {
+            throw new IOException("Not a file on disk: " + resource);
+        }
+        try {
+            return Paths.get(resource.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid resource location: " + resource, e);
+        }
+    }
+
+    /**
+     * Open a test data file, falling back to the classpath when it is not on disk
+     * @param fileName File name (without path)
+     * @return Stream positioned at the start of the file
+     */
+    public static InputStream open(String fileName) throws IOException {
+        File file = file(fileName);
+        if (file.exists()) {
+            return new FileInputStream(file);
+        }
+        InputStream inputStream = DataFiles.class.getClassLoader()
+            .getResourceAsStream(CLASSPATH_PREFIX + fileName);
+        if (inputStream == null) {
+            throw new IOException("File not found: " + fileName);
+        }
+        return inputStream;
+    }
+
+    /**
+     * Get the lower-case extension of a file name, or an empty string
+     */
+    public static String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase();
+    }
+}
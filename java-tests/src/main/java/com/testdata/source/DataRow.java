@@ -0,0 +1,62 @@
+package com.testdata.source;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Header-aware view of one row in a DataTable
+ */
+public final class DataRow {
+    private final List<String> headers;
+    private final Map<String, Integer> columns;
+    private final Object[] values;
+
+    DataRow(List<String> headers, Map<String, Integer> columns, Object[] values) {
+        this.headers = headers;
+        this.columns = columns;
+        this.values = values;
+    }
+
+    /**
+     * Get a cell by header name; cells past the end of a short row are empty strings
+     * @throws IllegalArgumentException if the header does not exist
+     */
+    public Object get(String header) {
+        Integer index = columns.get(header);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown column '" + header + "', available: " + headers);
+        }
+        return index < values.length ? values[index] : "";
+    }
+
+    /**
+     * Get a cell as text, with whole numbers from Excel rendered without ".0"
+     */
+    public String getString(String header) {
+        return TableIndex.keyOf(get(header));
+    }
+
+    /**
+     * Get a copy of the raw cell values
+     */
+    public Object[] values() {
+        return values.clone();
+    }
+
+    /**
+     * Get the row as an ordered header-to-value map
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (String header : headers) {
+            map.put(header, get(header));
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
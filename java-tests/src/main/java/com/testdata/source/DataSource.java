@@ -0,0 +1,35 @@
+package com.testdata.source;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares where a data-driven test method gets its rows from
+ * The reader is chosen from the file extension (xlsx, json, csv).
+ *
+ * Usage:
+ *   @DataSource(file = "logindata.xlsx", sheet = "Sheet1", columns = {"username", "password"})
+ *   @Test(dataProvider = "dataSource", dataProviderClass = DataSources.class)
+ *   public void testLogin(String username, String password) { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface DataSource {
+
+    /**
+     * File name under the test data directory; defaults to &lt;methodName&gt;.xlsx
+     */
+    String file() default "";
+
+    /**
+     * Sheet name for Excel or dot path for JSON; empty selects the format's default
+     */
+    String sheet() default "";
+
+    /**
+     * Header names to pass to the test, in parameter order; empty passes every column
+     */
+    String[] columns() default {};
+}
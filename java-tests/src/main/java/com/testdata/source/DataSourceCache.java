@@ -0,0 +1,94 @@
+package com.testdata.source;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded least-recently-used cache shared by every data source
+ * Each key is loaded once even when several threads ask for it at the same time;
+ * a failed load is not cached, so the next caller retries.
+ */
+final class DataSourceCache {
+    private final int capacity;
+    private final Map<String, CompletableFuture<Object>> entries;
+
+    DataSourceCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Object>> eldest) {
+                return size() > DataSourceCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Get a cached value, loading it on first access
+     * @param key Cache key
+     * @param loader Computes the value on a miss; runs on the calling thread outside the lock
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String key, Supplier<T> loader) {
+        CompletableFuture<Object> future;
+        boolean owner = false;
+        synchronized (entries) {
+            future = entries.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                entries.put(key, future);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            try {
+                future.complete(loader.get());
+            } catch (Throwable t) {
+                // Errors too (OutOfMemoryError on a huge workbook): waiters must not block forever
+                synchronized (entries) {
+                    entries.remove(key, future);
+                }
+                future.completeExceptionally(t);
+                throw t;
+            }
+        }
+
+        try {
+            return (T) future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Failed to load " + key, cause);
+        }
+    }
+
+    /**
+     * Drop the entries whose key matches, e.g. every entry of one file
+     */
+    void removeIf(Predicate<String> keys) {
+        synchronized (entries) {
+            entries.keySet().removeIf(keys);
+        }
+    }
+
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.testdata.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads one test data format into a DataTable
+ *
+ * Built-in readers cover xlsx, JSON and CSV. Additional formats can be plugged in
+ * by listing an implementation in META-INF/services/com.testdata.source.DataSourceReader;
+ * service-loaded readers are consulted before the built-in ones.
+ */
+public interface DataSourceReader {
+
+    /**
+     * Check whether this reader handles the given file
+     * @param fileName File name (without path)
+     */
+    boolean supports(String fileName);
+
+    /**
+     * Read a table from the file
+     * @param input Open stream for the file; closed by the caller
+     * @param fileName File name, for error messages
+     * @param sheet Format-specific section: sheet name for Excel, dot path for JSON,
+     *              ignored for CSV. Empty selects the format's default.
+     * @return Header-aware table; the first row of the source becomes the headers
+     */
+    DataTable read(InputStream input, String fileName, String sheet) throws IOException;
+}
@@ -0,0 +1,189 @@
+package com.testdata.source;
+
+import com.config.ConfigManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.DataProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Entry point of the pluggable data-source layer
+ * Files are read lazily on first request, through the reader matching their extension,
+ * and kept in one bounded cache shared by Excel, JSON and CSV sources.
+ *
+ * Cache size comes from config key testdata.cache.size (default 32 entries).
+ */
+public final class DataSources {
+    private static final Logger logger = LoggerFactory.getLogger(DataSources.class);
+    private static final DataSourceCache cache = new DataSourceCache(Math.max(1, ConfigManager.getTestdataCacheSize()));
+    private static final List<DataSourceReader> readers = loadReaders();
+
+    private DataSources() {}
+
+    private static List<DataSourceReader> loadReaders() {
+        List<DataSourceReader> found = new ArrayList<>();
+        ServiceLoader.load(DataSourceReader.class).forEach(found::add);
+        found.add(new ExcelSourceReader());
+        found.add(new JsonSourceReader());
+        found.add(new CsvSourceReader());
+        return List.copyOf(found);
+    }
+
+    /**
+     * DataProvider driven by the @DataSource annotation on the test method
+     *
+     * Usage: @Test(dataProvider = "dataSource", dataProviderClass = DataSources.class)
+     */
+    @DataProvider(name = "dataSource")
+    public static Object[][] fromAnnotation(Method method) {
+        return provide(method, method.getName() + ".xlsx", "");
+    }
+
+    /**
+     * Same rows as dataSource, run concurrently
+     *
+     * Usage: @Test(dataProvider = "dataSourceParallel", dataProviderClass = DataSources.class)
+     */
+    @DataProvider(name = "dataSourceParallel", parallel = true)
+    public static Object[][] fromAnnotationParallel(Method method) {
+        return fromAnnotation(method);
+    }
+
+    /**
+     * Resolve rows for a test method from its @DataSource annotation
+     * @param method Test method
+     * @param defaultFile File used when the method is not annotated or leaves file empty
+     * @param defaultSheet Sheet used when the method is not annotated or leaves sheet empty
+     */
+    public static Object[][] provide(Method method, String defaultFile, String defaultSheet) {
+        DataSource source = method.getAnnotation(DataSource.class);
+        if (source == null) {
+            return table(defaultFile, defaultSheet).toArray();
+        }
+        String file = source.file().isEmpty() ? defaultFile : source.file();
+        String sheet = source.sheet().isEmpty() ? defaultSheet : source.sheet();
+        return table(file, sheet).select(source.columns());
+    }
+
+    /**
+     * Get a table from a test data file, reading it on first access
+     * @param fileName File name under the test data directory
+     * @param sheet Sheet name for Excel, dot path for JSON; empty for the default
+     */
+    public static DataTable table(String fileName, String sheet) {
+        return cache.get("table:" + fileName + "#" + sheet, () -> {
+            DataSourceReader reader = readerFor(fileName);
+            if (reader.getClass() == JsonSourceReader.class) {
+                // Share one parsed tree across every path of the same JSON file
+                return JsonSourceReader.toTable(json(fileName), fileName, sheet);
+            }
+            if (reader.getClass() == ExcelSourceReader.class) {
+                // Read every sheet of the workbook in one pass
+                IndexedWorkbook workbook = workbook(fileName);
+                if (!sheet.isEmpty() && !workbook.hasSheet(sheet)) {
+                    logger.error("Sheet '{}' not found in file: {}", sheet, fileName);
+                    return new DataTable(List.of(), List.of());
+                }
+                return workbook.sheet(sheet);
+            }
+            logger.info("Reading test data from: {} - Sheet: {}", fileName, sheet.isEmpty() ? "<default>" : sheet);
+            try (InputStream input = DataFiles.open(fileName)) {
+                DataTable table = reader.read(input, fileName, sheet);
+                logger.info("Successfully read {} rows from {}", table.rows().size(), fileName);
+                return table;
+            } catch (IOException e) {
+                logger.error("Failed to read test data from {}: {}", fileName, e.getMessage());
+                throw new RuntimeException("Failed to read test data", e);
+            }
+        });
+    }
+
+    /**
+     * Get the parsed tree of a JSON test data file, reading it on first access
+     * The tree is shared; callers must not modify it.
+     */
+    public static JsonNode json(String fileName) {
+        return cache.get("json:" + fileName, () -> {
+            logger.info("Loading test data from: {}", fileName);
+            try (InputStream input = DataFiles.open(fileName)) {
+                return JsonSourceReader.readTree(input);
+            } catch (IOException e) {
+                logger.error("Failed to load test data from {}: {}", fileName, e.getMessage());
+                throw new RuntimeException("Failed to load test data", e);
+            }
+        });
+    }
+
+    /**
+     * Get every sheet of an .xlsx workbook, reading it on first access
+     * Sheets carry their headers and can be indexed on key columns for O(1) lookups.
+     */
+    public static IndexedWorkbook workbook(String fileName) {
+        return cache.get("workbook:" + fileName, () -> {
+            logger.info("Reading workbook: {}", fileName);
+            try (InputStream input = DataFiles.open(fileName)) {
+                IndexedWorkbook workbook = IndexedWorkbook.read(input, fileName);
+                logger.info("Successfully read sheets {} from {}", workbook.sheetNames(), fileName);
+                return workbook;
+            } catch (IOException e) {
+                logger.error("Failed to read Excel file: {}", e.getMessage());
+                throw new RuntimeException("Failed to read Excel data", e);
+            }
+        });
+    }
+
+    /**
+     * Get a memory-mapped CSV file, mapping it on first access
+     * Only the header is read eagerly; rows stay off-heap until iterated.
+     */
+    public static MappedCsvFile mappedCsv(String fileName) {
+        return cache.get("mapped:" + fileName, () -> {
+            try {
+                MappedCsvFile file = MappedCsvFile.open(DataFiles.path(fileName));
+                logger.info("Mapped CSV test data: {} ({} bytes, columns {})", fileName, file.size(), file.headers());
+                return file;
+            } catch (IOException e) {
+                logger.error("Failed to map CSV test data {}: {}", fileName, e.getMessage());
+                throw new RuntimeException("Failed to read test data", e);
+            }
+        });
+    }
+
+    /**
+     * Find the reader for a file
+     * @throws IllegalArgumentException if no reader supports the file
+     */
+    public static DataSourceReader readerFor(String fileName) {
+        for (DataSourceReader reader : readers) {
+            if (reader.supports(fileName)) {
+                return reader;
+            }
+        }
+        throw new IllegalArgumentException("No data source reader for file: " + fileName);
+    }
+
+    /**
+     * Drop the cached entries of one file (every sheet and view), e.g. after it was rewritten
+     * @param fileName File name as passed to the readers
+     */
+    public static void evict(String fileName) {
+        cache.removeIf(key -> {
+            String file = key.substring(key.indexOf(':') + 1);
+            return file.equals(fileName) || file.startsWith(fileName + "#");
+        });
+    }
+
+    /**
+     * Drop every cached entry, e.g. after test data files were rewritten
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+}
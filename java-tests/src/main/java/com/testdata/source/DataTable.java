@@ -0,0 +1,116 @@
+package com.testdata.source;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Header-aware tabular test data read from a data source
+ * Rows are shared through the cache, so accessors hand out copies.
+ */
+public final class DataTable {
+    private final List<String> headers;
+    private final List<Object[]> rows;
+    private final Map<String, Integer> columns;
+    private final Map<List<String>, TableIndex> indexes = new ConcurrentHashMap<>();
+
+    public DataTable(List<String> headers, List<Object[]> rows) {
+        this.headers = List.copyOf(headers);
+        this.rows = List.copyOf(rows);
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < this.headers.size(); i++) {
+            byName.putIfAbsent(this.headers.get(i), i);
+        }
+        this.columns = Map.copyOf(byName);
+    }
+
+    public List<String> headers() {
+        return headers;
+    }
+
+    /**
+     * Get the raw rows; the arrays are shared and must not be modified
+     */
+    public List<Object[]> rows() {
+        return rows;
+    }
+
+    /**
+     * Get a header-aware view of one row
+     * @param index 0-based data row index (the header row is not counted)
+     */
+    public DataRow row(int index) {
+        return new DataRow(headers, columns, rows.get(index));
+    }
+
+    /**
+     * Get the hash index on the given key columns, building it on first use
+     * Example: index("username") or index("userId", "orderId")
+     */
+    public TableIndex index(String... keyColumns) {
+        if (keyColumns.length == 0) {
+            throw new IllegalArgumentException("At least one key column is required");
+        }
+        return indexes.computeIfAbsent(List.of(keyColumns), key -> new TableIndex(this, key));
+    }
+
+    /**
+     * Get all rows in TestNG DataProvider shape
+     */
+    public Object[][] toArray() {
+        Object[][] data = new Object[rows.size()][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = rows.get(i).clone();
+        }
+        return data;
+    }
+
+    /**
+     * Get selected columns by header name
+     * @param columns Header names; empty selects every column
+     */
+    public Object[][] select(String... columns) {
+        if (columns.length == 0) {
+            return toArray();
+        }
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indexes[i] = columnIndex(columns[i]);
+        }
+        return select(indexes);
+    }
+
+    /**
+     * Get selected columns by 0-based index
+     * Cells past the end of a short row are returned as empty strings
+     */
+    public Object[][] select(int[] columnIndexes) {
+        Object[][] data = new Object[rows.size()][columnIndexes.length];
+        for (int r = 0; r < data.length; r++) {
+            Object[] row = rows.get(r);
+            for (int c = 0; c < columnIndexes.length; c++) {
+                int index = columnIndexes[c];
+                data[r][c] = index < row.length ? row[index] : "";
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Get the 0-based index of a header
+     * @throws IllegalArgumentException if the header does not exist
+     */
+    public int columnIndex(String header) {
+        Integer index = columns.get(header);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown column '" + header + "', available: " + headers);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "DataTable{headers=" + headers + ", rows=" + rows.size() + '}';
+    }
+}
@@ -0,0 +1,98 @@
+package com.testdata.source;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads .xlsx sheets with Apache POI
+ * An empty sheet name selects the first sheet in the workbook
+ */
+public class ExcelSourceReader implements DataSourceReader {
+    private static final Logger logger = LoggerFactory.getLogger(ExcelSourceReader.class);
+
+    @Override
+    public boolean supports(String fileName) {
+        return "xlsx".equals(DataFiles.extension(fileName));
+    }
+
+    @Override
+    public DataTable read(InputStream input, String fileName, String sheetName) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook(input)) {
+            Sheet sheet = sheetName.isEmpty() ? workbook.getSheetAt(0) : workbook.getSheet(sheetName);
+            if (sheet == null) {
+                logger.error("Sheet '{}' not found in file: {}", sheetName, fileName);
+                return new DataTable(List.of(), List.of());
+            }
+            return readSheet(sheet);
+        }
+    }
+
+    /**
+     * Read a sheet; the first row becomes the headers
+     */
+    public static DataTable readSheet(Sheet sheet) {
+        List<String> headers = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        Iterator<Row> rowIterator = sheet.iterator();
+
+        if (rowIterator.hasNext()) {
+            for (Cell cell : rowIterator.next()) {
+                while (headers.size() < cell.getColumnIndex()) {
+                    headers.add("");
+                }
+                headers.add(String.valueOf(getCellValue(cell)));
+            }
+        }
+
+        while (rowIterator.hasNext()) {
+            Row row = rowIterator.next();
+            Object[] rowData = new Object[Math.max(row.getLastCellNum(), 0)];
+            for (int i = 0; i < rowData.length; i++) {
+                rowData[i] = getCellValue(row.getCell(i));
+            }
+            rows.add(rowData);
+        }
+
+        return new DataTable(headers, rows);
+    }
+
+    /**
+     * Get cell value as appropriate Java type
+     */
+    public static Object getCellValue(Cell cell) {
+        if (cell == null) {
+            return "";
+        }
+
+        switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue();
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    return cell.getDateCellValue();
+                } else {
+                    return cell.getNumericCellValue();
+                }
+            case BOOLEAN:
+                return cell.getBooleanCellValue();
+            case FORMULA:
+                return cell.getCellFormula();
+            case BLANK:
+                return "";
+            default:
+                return "";
+        }
+    }
+}
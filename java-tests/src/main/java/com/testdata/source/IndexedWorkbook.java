@@ -0,0 +1,133 @@
+package com.testdata.source;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * All sheets of one .xlsx workbook, read once, with hash indexes on key columns
+ *
+ * Usage:
+ *   IndexedWorkbook workbook = DataSources.workbook("accounts.xlsx");
+ *   DataRow user = workbook.lookup("Users", "username", "alice");
+ *   List<DataRow> orders = workbook.related(user, "userId", "Orders", "userId");
+ */
+public final class IndexedWorkbook {
+    private final String fileName;
+    private final Map<String, DataTable> sheets;
+
+    private IndexedWorkbook(String fileName, Map<String, DataTable> sheets) {
+        this.fileName = fileName;
+        this.sheets = Collections.unmodifiableMap(sheets);
+    }
+
+    /**
+     * Read every sheet of a workbook
+     * @param input Open stream for the file; closed by the caller
+     * @param fileName File name, for error messages
+     */
+    public static IndexedWorkbook read(InputStream input, String fileName) throws IOException {
+        Map<String, DataTable> sheets = new LinkedHashMap<>();
+        try (Workbook workbook = new XSSFWorkbook(input)) {
+            for (Sheet sheet : workbook) {
+                sheets.put(sheet.getSheetName(), ExcelSourceReader.readSheet(sheet));
+            }
+        }
+        return new IndexedWorkbook(fileName, sheets);
+    }
+
+    /**
+     * Get sheet names in workbook order
+     */
+    public Set<String> sheetNames() {
+        return sheets.keySet();
+    }
+
+    /**
+     * Get a sheet; an empty name selects the first sheet
+     * @throws IllegalArgumentException if the sheet does not exist
+     */
+    public DataTable sheet(String name) {
+        DataTable table = name.isEmpty() && !sheets.isEmpty()
+            ? sheets.values().iterator().next()
+            : sheets.get(name);
+        if (table == null) {
+            throw new IllegalArgumentException("Sheet '" + name + "' not found in file: " + fileName
+                + ", available: " + sheets.keySet());
+        }
+        return table;
+    }
+
+    public boolean hasSheet(String name) {
+        return sheets.containsKey(name);
+    }
+
+    /**
+     * Get the hash index on key columns of a sheet, building it on first use
+     */
+    public TableIndex index(String sheet, String... keyColumns) {
+        return sheet(sheet).index(keyColumns);
+    }
+
+    /**
+     * Find the single row of a sheet whose key column equals the value
+     * @return The row, or null when there is none
+     */
+    public DataRow lookup(String sheet, String keyColumn, Object key) {
+        return index(sheet, keyColumn).get(key);
+    }
+
+    /**
+     * Follow a reference from a row into another sheet
+     * @param row Source row
+     * @param fromColumn Column of the source row holding the reference
+     * @param sheet Target sheet
+     * @param toColumn Target column the reference points at
+     * @return Matching rows in sheet order
+     */
+    public List<DataRow> related(DataRow row, String fromColumn, String sheet, String toColumn) {
+        return index(sheet, toColumn).getAll(row.get(fromColumn));
+    }
+
+    /**
+     * Inner hash join of two sheets on one column each
+     * The right sheet's index is reused across calls, so the cost is one pass over the left sheet.
+     * @return One pair per matching combination, in left-sheet order
+     */
+    public List<Joined> join(String leftSheet, String leftColumn, String rightSheet, String rightColumn) {
+        DataTable left = sheet(leftSheet);
+        TableIndex right = index(rightSheet, rightColumn);
+        int keyIndex = left.columnIndex(leftColumn);
+
+        List<Joined> joined = new ArrayList<>();
+        for (int r = 0; r < left.rows().size(); r++) {
+            Object[] values = left.rows().get(r);
+            if (keyIndex >= values.length) {
+                continue;
+            }
+            List<DataRow> matches = right.getAll(values[keyIndex]);
+            if (!matches.isEmpty()) {
+                DataRow leftRow = left.row(r);
+                for (DataRow match : matches) {
+                    joined.add(new Joined(leftRow, match));
+                }
+            }
+        }
+        return joined;
+    }
+
+    /**
+     * A left row paired with one matching right row
+     */
+    public record Joined(DataRow left, DataRow right) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.testdata.source;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads JSON arrays of objects, or objects of objects, as tables
+ * The sheet is a dot path to the collection (e.g. "webInputs"); empty uses the root.
+ * Headers are the union of field names in order of first appearance.
+ */
+public class JsonSourceReader implements DataSourceReader {
+    private static final ObjectReader treeReader = new ObjectMapper().readerFor(JsonNode.class);
+
+    @Override
+    public boolean supports(String fileName) {
+        return "json".equals(DataFiles.extension(fileName));
+    }
+
+    @Override
+    public DataTable read(InputStream input, String fileName, String sheet) throws IOException {
+        return toTable(readTree(input), fileName, sheet);
+    }
+
+    /**
+     * Parse a JSON document into a tree
+     */
+    public static JsonNode readTree(InputStream input) throws IOException {
+        return treeReader.readTree(input);
+    }
+
+    /**
+     * Convert the collection at a dot path of an already parsed tree
+     */
+    public static DataTable toTable(JsonNode root, String fileName, String path) {
+        JsonNode node = path.isEmpty() ? root : root.at("/" + path.replace('.', '/'));
+        if (node.isMissingNode()) {
+            throw new IllegalArgumentException("No test data at '" + path + "' in " + fileName);
+        }
+
+        List<JsonNode> records = new ArrayList<>();
+        if (node.isArray()) {
+            node.forEach(records::add);
+        } else if (node.isObject()) {
+            node.elements().forEachRemaining(records::add);
+        } else {
+            throw new IllegalArgumentException("'" + path + "' in " + fileName + " is not a collection");
+        }
+
+        List<String> headers = new ArrayList<>();
+        for (JsonNode record : records) {
+            Iterator<String> names = record.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!headers.contains(name)) {
+                    headers.add(name);
+                }
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(records.size());
+        for (JsonNode record : records) {
+            Object[] row = new Object[headers.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = toValue(record.get(headers.get(i)));
+            }
+            rows.add(row);
+        }
+        return new DataTable(headers, rows);
+    }
+
+    private static Object toValue(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return "";
+        }
+        if (value.isTextual()) {
+            return value.textValue();
+        }
+        if (value.isBoolean()) {
+            return value.booleanValue();
+        }
+        if (value.isNumber()) {
+            return value.numberValue();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,297 @@
+package com.testdata.source;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Memory-mapped, lazily parsed CSV file for very large data-driven runs
+ *
+ * The file is never read into the heap: each byte range is mapped with NIO and
+ * rows are handed out as CsvRow views. The data section can be split into ranges
+ * on line boundaries so several threads consume rows concurrently.
+ *
+ * Quoted fields may contain commas and "" escapes. Line breaks inside quoted
+ * fields are only supported when the file is consumed as a single range.
+ */
+public final class MappedCsvFile {
+    /** Largest range mapped as one buffer */
+    static final long MAX_RANGE = 1L << 30;
+    private static final int SCAN_BUFFER = 8192;
+
+    private final Path path;
+    private final long size;
+    private final long dataStart;
+    private final List<String> headers;
+
+    private MappedCsvFile(Path path, long size, long dataStart, List<String> headers) {
+        this.path = path;
+        this.size = size;
+        this.dataStart = dataStart;
+        this.headers = headers;
+    }
+
+    /**
+     * Map a CSV file and read its header line
+     * @param path File on disk
+     */
+    public static MappedCsvFile open(Path path) throws IOException {
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAX_RANGE));
+            int offset = hasByteOrderMark(head) ? 3 : 0;
+            int lineEnd = lineEnd(head, offset);
+            CsvRow headerRow = new CsvRow(head, offset, trimCarriageReturn(head, offset, lineEnd));
+            List<String> headers = new ArrayList<>(headerRow.fieldCount());
+            for (int i = 0; i < headerRow.fieldCount(); i++) {
+                headers.add(headerRow.field(i).toString());
+            }
+            long dataStart = Math.min(lineEnd + 1L, size);
+            return new MappedCsvFile(path, size, dataStart, List.copyOf(headers));
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public List<String> headers() {
+        return headers;
+    }
+
+    /**
+     * Get the 0-based index of a header
+     * @throws IllegalArgumentException if the header does not exist
+     */
+    public int columnIndex(String header) {
+        int index = headers.indexOf(header);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column '" + header + "', available: " + headers);
+        }
+        return index;
+    }
+
+    /**
+     * Split the data rows into ranges of roughly equal byte size
+     * Boundaries are moved forward to the next line start, so no row is cut.
+     * @param parts Requested number of ranges; raised if a range would exceed the mapping limit
+     */
+    public List<Range> split(int parts) throws IOException {
+        long length = size - dataStart;
+        int count = (int) Math.max(Math.max(parts, 1), (length + MAX_RANGE - 1) / MAX_RANGE);
+        List<Range> ranges = new ArrayList<>(count);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long start = dataStart;
+            for (int i = 1; i <= count && start < size; i++) {
+                long end = i == count ? size : nextLineStart(channel, dataStart + length * i / count);
+                if (end > start) {
+                    ranges.add(new Range(start, end));
+                    start = end;
+                }
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Stream every data row
+     * @param parallel Whether the stream may process ranges on several threads
+     */
+    public Stream<CsvRow> rows(boolean parallel) throws IOException {
+        int parts = parallel ? Runtime.getRuntime().availableProcessors() * 4 : 1;
+        return StreamSupport.stream(new RangeSpliterator(split(parts)), parallel);
+    }
+
+    /**
+     * Iterate every data row on the calling thread
+     */
+    public Iterator<CsvRow> iterator() throws IOException {
+        return new RangeSpliterator(split(1)).asIterator();
+    }
+
+    private long nextLineStart(FileChannel channel, long from) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER);
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static boolean hasByteOrderMark(ByteBuffer buffer) {
+        return buffer.limit() >= 3
+            && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF;
+    }
+
+    /**
+     * Find the index of the newline ending the record that starts at from, or the limit
+     * Newlines inside quoted fields do not end the record.
+     */
+    static int lineEnd(ByteBuffer buffer, int from) {
+        boolean quoted = false;
+        int limit = buffer.limit();
+        for (int i = from; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    private static int trimCarriageReturn(ByteBuffer buffer, int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    /**
+     * Byte range [start, end) of whole data rows, mapped when first iterated
+     */
+    public final class Range {
+        private final long start;
+        private final long end;
+
+        Range(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public long start() {
+            return start;
+        }
+
+        public long end() {
+            return end;
+        }
+
+        /**
+         * Map this range and iterate its rows; blank lines are skipped
+         */
+        public Iterator<CsvRow> rows() {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to map CSV range of " + path, e);
+            }
+            return new Iterator<>() {
+                private int position = 0;
+                private CsvRow next = advance();
+
+                private CsvRow advance() {
+                    int limit = buffer.limit();
+                    while (position < limit) {
+                        int lineStart = position;
+                        int lineEnd = lineEnd(buffer, lineStart);
+                        position = lineEnd + 1;
+                        int contentEnd = trimCarriageReturn(buffer, lineStart, lineEnd);
+                        if (contentEnd > lineStart) {
+                            return new CsvRow(buffer, lineStart, contentEnd);
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public CsvRow next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    CsvRow current = next;
+                    next = advance();
+                    return current;
+                }
+            };
+        }
+    }
+
+    /**
+     * Splits by whole ranges so each worker maps and scans its own part of the file
+     */
+    private static final class RangeSpliterator implements Spliterator<CsvRow> {
+        private final List<Range> ranges;
+        private int index;
+        private final int fence;
+        private Iterator<CsvRow> current;
+
+        RangeSpliterator(List<Range> ranges) {
+            this(ranges, 0, ranges.size());
+        }
+
+        private RangeSpliterator(List<Range> ranges, int index, int fence) {
+            this.ranges = ranges;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super CsvRow> action) {
+            while (current == null || !current.hasNext()) {
+                if (index >= fence) {
+                    return false;
+                }
+                current = ranges.get(index++).rows();
+            }
+            action.accept(current.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<CsvRow> trySplit() {
+            if (current != null || fence - index < 2) {
+                return null;
+            }
+            int mid = (index + fence) >>> 1;
+            RangeSpliterator prefix = new RangeSpliterator(ranges, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        Iterator<CsvRow> asIterator() {
+            return Spliterators.iterator(this);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.testdata.source;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Hash index over one or more key columns of a DataTable
+ * Built once in a single pass; lookups are a hash probe. Keys are compared as text,
+ * so the numeric Excel cell 1001.0 matches the key "1001". Rows with a blank key are
+ * not indexed.
+ */
+public final class TableIndex {
+    private static final char KEY_SEPARATOR = '\u001F';
+
+    private final List<String> keyColumns;
+    private final Map<String, List<DataRow>> rows;
+
+    TableIndex(DataTable table, List<String> keyColumns) {
+        this.keyColumns = List.copyOf(keyColumns);
+        int[] indexes = new int[keyColumns.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = table.columnIndex(keyColumns.get(i));
+        }
+
+        Map<String, List<DataRow>> byKey = new HashMap<>(Math.max(16, table.rows().size() * 4 / 3));
+        for (int r = 0; r < table.rows().size(); r++) {
+            Object[] values = table.rows().get(r);
+            StringJoiner key = new StringJoiner(String.valueOf(KEY_SEPARATOR));
+            boolean blank = true;
+            for (int index : indexes) {
+                String part = index < values.length ? keyOf(values[index]) : "";
+                blank &= part.isEmpty();
+                key.add(part);
+            }
+            if (!blank) {
+                byKey.computeIfAbsent(key.toString(), k -> new ArrayList<>(1)).add(table.row(r));
+            }
+        }
+        byKey.replaceAll((k, list) -> Collections.unmodifiableList(list));
+        this.rows = byKey;
+    }
+
+    public List<String> keyColumns() {
+        return keyColumns;
+    }
+
+    /**
+     * Get the single row for a key
+     * @param key One value per key column, in index order
+     * @return The row, or null when there is none
+     * @throws IllegalStateException if several rows share the key
+     */
+    public DataRow get(Object... key) {
+        List<DataRow> matches = rows.get(keyFor(key));
+        if (matches == null) {
+            return null;
+        }
+        if (matches.size() > 1) {
+            throw new IllegalStateException(matches.size() + " rows share key " + List.of(key) + " on " + keyColumns);
+        }
+        return matches.get(0);
+    }
+
+    /**
+     * Get every row for a key, in sheet order
+     * @param key One value per key column, in index order
+     */
+    public List<DataRow> getAll(Object... key) {
+        return rows.getOrDefault(keyFor(key), List.of());
+    }
+
+    public boolean contains(Object... key) {
+        return rows.containsKey(keyFor(key));
+    }
+
+    /**
+     * Get the number of distinct keys
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    private String keyFor(Object[] key) {
+        if (key.length != keyColumns.size()) {
+            throw new IllegalArgumentException("Expected " + keyColumns.size() + " key value(s) for " + keyColumns
+                + " but got " + key.length);
+        }
+        if (key.length == 1) {
+            return keyOf(key[0]);
+        }
+        StringJoiner joined = new StringJoiner(String.valueOf(KEY_SEPARATOR));
+        for (Object part : key) {
+            joined.add(keyOf(part));
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Normalize a cell value to its key text
+     */
+    static String keyOf(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Double d && d == Math.rint(d) && Math.abs(d) < 1e15) {
+            return Long.toString(d.longValue());
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,357 @@
+package com.utils;
+
+import com.config.ConfigManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams run artifacts (screenshots, traces, logs) into one archive per run
+ *
+ * Enable with config key artifacts.archive=zip or tar (e.g. -Dartifacts.archive=zip); the archive is created on first use as
+ * target/artifacts/run_&lt;timestamp&gt;_&lt;id&gt;.zip|tar and closed at suite end (or JVM exit)
+ * with a manifest.json entry listing every artifact.
+ *
+ * Any thread may add entries. Sizes and checksums are computed on the calling thread;
+ * only copying bytes into the archive is serialized, through a 64 KB buffer, so whole
+ * artifacts are never held in memory. Already-compressed formats (png, jpg, zip, webm,
+ * ...) are stored as-is in zip archives; text is deflated.
+ */
+public final class ArtifactSink implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactSink.class);
+    private static final Path ARCHIVE_DIR = Paths.get("target/artifacts");
+    private static final Set<String> PRECOMPRESSED = Set.of("png", "jpg", "jpeg", "gif", "webp", "zip", "gz", "webm", "mp4", "xlsx");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static ArtifactSink current;
+    private static boolean shutdownHookAdded;
+
+    private final Path path;
+    private final boolean tar;
+    private final ZipOutputStream zip;
+    private final TarArchiveOutputStream tarOut;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<String> names = new HashSet<>();
+    private final List<Map<String, Object>> manifest = new ArrayList<>();
+    private boolean closed;
+
+    private ArtifactSink(Path path, boolean tar) throws IOException {
+        this.path = path;
+        this.tar = tar;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE);
+        if (tar) {
+            tarOut = new TarArchiveOutputStream(out);
+            tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            tarOut.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+            zip = null;
+        } else {
+            zip = new ZipOutputStream(out);
+            tarOut = null;
+        }
+    }
+
+    /**
+     * Open an archive at an explicit path; the format follows the extension (.zip or .tar)
+     */
+    public static ArtifactSink open(Path path) {
+        try {
+            return new ArtifactSink(path, path.getFileName().toString().endsWith(".tar"));
+        } catch (IOException e) {
+            logger.error("Failed to create artifact archive {}: {}", path, e.getMessage());
+            throw new RuntimeException("Failed to create artifact archive: " + path, e);
+        }
+    }
+
+    /**
+     * True when artifacts.archive selects an archive for this run
+     */
+    public static boolean isEnabled() {
+        return !"off".equals(ConfigManager.getArtifactsArchive());
+    }
+
+    /**
+     * Get this run's archive, creating it on first use
+     * @return the archive, or null when artifacts are written as loose files
+     */
+    public static synchronized ArtifactSink current() {
+        if (!isEnabled()) {
+            return null;
+        }
+        if (current == null) {
+            String name = "run_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
+                + "_" + UniqueIdGenerator.nextId() + "." + ConfigManager.getArtifactsArchive();
+            current = open(ARCHIVE_DIR.resolve(name));
+            logger.info("Writing run artifacts to {}", current.path);
+            if (!shutdownHookAdded) {
+                shutdownHookAdded = true;
+                Runtime.getRuntime().addShutdownHook(new Thread(ArtifactSink::closeRun, "artifact-sink-close"));
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Close this run's archive, adding the log file and the manifest
+     */
+    public static synchronized void closeRun() {
+        if (current == null) {
+            return;
+        }
+        Path log = Paths.get("target/logs/test-execution.log");
+        if (Files.isRegularFile(log)) {
+            current.add("logs/" + log.getFileName(), log);
+        }
+        current.close();
+        current = null;
+    }
+
+    /**
+     * Archive entry name for a file under target/, e.g. target/screenshots/a.png -> screenshots/a.png
+     */
+    public static String entryName(Path file) {
+        Path normalized = file.normalize();
+        Path target = Paths.get("target");
+        if (normalized.startsWith(target)) {
+            normalized = target.relativize(normalized);
+        } else if (normalized.isAbsolute()) {
+            Path absoluteTarget = target.toAbsolutePath();
+            normalized = normalized.startsWith(absoluteTarget) ? absoluteTarget.relativize(normalized) : normalized.getFileName();
+        }
+        return normalized.toString().replace('\\', '/');
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Add a file, streaming it from disk
+     */
+    public void add(String name, Path file) {
+        try {
+            long size = Files.size(file);
+            long crc = !tar && isPrecompressed(name) ? crc(file) : -1;
+            try (InputStream in = Files.newInputStream(file)) {
+                write(name, in, size, crc, file.toString());
+            }
+        } catch (IOException e) {
+            logger.error("Failed to archive {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Add bytes already in memory (e.g. a captured screenshot)
+     */
+    public void add(String name, byte[] bytes) {
+        long crc = -1;
+        if (!tar && isPrecompressed(name)) {
+            CRC32 checksum = new CRC32();
+            checksum.update(bytes);
+            crc = checksum.getValue();
+        }
+        try {
+            write(name, new ByteArrayInputStream(bytes), bytes.length, crc, null);
+        } catch (IOException e) {
+            logger.error("Failed to archive {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Add a stream of unknown length
+     * Tar entries need their size up front, so the stream is spooled to a temp file first.
+     */
+    public void add(String name, InputStream in) {
+        try {
+            if (tar || isPrecompressed(name)) {
+                Path spool = Files.createTempFile("artifact", ".tmp");
+                try {
+                    Files.copy(in, spool, StandardCopyOption.REPLACE_EXISTING);
+                    add(name, spool);
+                } finally {
+                    Files.deleteIfExists(spool);
+                }
+            } else {
+                write(name, in, -1, -1, null);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to archive {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Record in the manifest that an artifact name refers to an existing entry
+     * (e.g. a screenshot identical to an earlier one)
+     */
+    public void reference(String name, String existingEntry) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", name);
+        entry.put("sameAs", existingEntry);
+        entry.put("time", Instant.now().toString());
+        lock.lock();
+        try {
+            manifest.add(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(String name, InputStream in, long size, long crc, String source) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Artifact archive already closed: " + path);
+            }
+            String entryName = uniqueName(name);
+            long written = 0;
+            if (tar) {
+                TarArchiveEntry entry = new TarArchiveEntry(entryName);
+                entry.setSize(size);
+                tarOut.putArchiveEntry(entry);
+                written = copy(in, tarOut, buffer);
+                tarOut.closeArchiveEntry();
+            } else {
+                ZipEntry entry = new ZipEntry(entryName);
+                if (crc >= 0) {
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(size);
+                    entry.setCompressedSize(size);
+                    entry.setCrc(crc);
+                }
+                zip.putNextEntry(entry);
+                written = copy(in, zip, buffer);
+                zip.closeEntry();
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("name", entryName);
+            item.put("type", type(entryName));
+            item.put("bytes", written);
+            item.put("time", Instant.now().toString());
+            if (source != null) {
+                item.put("source", source);
+            }
+            manifest.add(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long copy(InputStream in, OutputStream out, byte[] buffer) throws IOException {
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            total += read;
+        }
+        return total;
+    }
+
+    private String uniqueName(String name) {
+        if (names.add(name)) {
+            return name;
+        }
+        int dot = name.lastIndexOf('.');
+        String unique = dot > name.lastIndexOf('/')
+            ? name.substring(0, dot) + "_" + UniqueIdGenerator.nextId() + name.substring(dot)
+            : name + "_" + UniqueIdGenerator.nextId();
+        names.add(unique);
+        return unique;
+    }
+
+    private static long crc(Path file) throws IOException {
+        CRC32 checksum = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                checksum.update(buffer, 0, read);
+            }
+        }
+        return checksum.getValue();
+    }
+
+    private static boolean isPrecompressed(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && PRECOMPRESSED.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static String type(String name) {
+        int slash = name.indexOf('/');
+        return slash > 0 ? name.substring(0, slash) : "other";
+    }
+
+    /**
+     * Write the manifest and finish the archive
+     */
+    @Override
+    public void close() {
+        byte[] json;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            Map<String, Object> document = new LinkedHashMap<>();
+            document.put("archive", path.getFileName().toString());
+            document.put("entries", manifest);
+            json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsBytes(document);
+        } catch (IOException e) {
+            logger.error("Failed to build artifact manifest: {}", e.getMessage());
+            json = null;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (json != null) {
+                write("manifest.json", new ByteArrayInputStream(json), json.length, -1, null);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write artifact manifest to {}: {}", path, e.getMessage());
+        } finally {
+            // The stream is closed even when the manifest could not be written
+            lock.lock();
+            try {
+                closed = true;
+                if (tar) {
+                    tarOut.close();
+                } else {
+                    zip.close();
+                }
+                logger.info("Artifact archive closed: {} ({} entries)", path, manifest.size() - 1);
+            } catch (IOException e) {
+                logger.error("Failed to close artifact archive {}: {}", path, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.utils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
 /**
  * Utility class for generating test data
  * Provides methods for creating random strings, numbers, emails, etc.
+ *
+ * Each thread draws from its own SplittableRandom, so parallel tests never contend
+ * on a shared seed. All values derive from one run seed (logged at first use,
+ * fixed with -Ddata.seed=N); call {@link #seedForTest(String)} at test start to make
+ * a test's data depend only on the run seed and the test name.
  */
 public class DataGeneratorUtils {
-    private static final Random random = new Random();
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorUtils.class);
+    private static final long RUN_SEED = resolveRunSeed();
+    private static final SplittableRandom root = new SplittableRandom(RUN_SEED);
+    private static final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial(DataGeneratorUtils::splitRoot);
     
     // Character sets
     private static final String ALPHA_UPPER = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
@@ -18,39 +30,100 @@ public class DataGeneratorUtils {
     private static final String NUMERIC = "0123456789";
     private static final String ALPHANUMERIC = ALPHA_UPPER + ALPHA_LOWER + NUMERIC;
     private static final String SPECIAL_CHARS = "!@#$%^&*()_+-=[]{}|;:,.<>?";
+    private static final byte[] ALPHANUMERIC_BYTES = ALPHANUMERIC.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LOWER_ALPHANUMERIC_BYTES = (ALPHA_LOWER + NUMERIC).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ALPHABETIC_BYTES = (ALPHA_UPPER + ALPHA_LOWER).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NUMERIC_BYTES = NUMERIC.getBytes(StandardCharsets.US_ASCII);
+    
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Michael", "Emily", "David", "Sarah",
+                                                 "Robert", "Lisa", "James", "Mary", "William", "Patricia"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+                                                "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez"};
+    private static final String[] COMPANY_ADJECTIVES = {"Global", "Advanced", "Dynamic", "Innovative", "Premier"};
+    private static final String[] COMPANY_NOUNS = {"Solutions", "Technologies", "Systems", "Enterprises", "Industries"};
+    
+    private static long resolveRunSeed() {
+        String configured = System.getProperty("data.seed");
+        long seed = configured != null ? Long.parseLong(configured) : System.nanoTime() ^ System.currentTimeMillis() << 20;
+        logger.info("Random data seed: {} (reproduce with -Ddata.seed={})", seed, seed);
+        return seed;
+    }
+    
+    private static SplittableRandom splitRoot() {
+        synchronized (root) {
+            return root.split();
+        }
+    }
     
     /**
-     * Generate random alphanumeric string
+     * Get the run seed every generated value derives from
      */
-    public static String randomString(int length) {
-        StringBuilder sb = new StringBuilder(length);
+    public static long getRunSeed() {
+        return RUN_SEED;
+    }
+    
+    /**
+     * Reseed the calling thread's generator from the run seed and a test identifier
+     * The same test name and run seed always produce the same sequence of values,
+     * regardless of which thread or in which order tests run.
+     * @param testName Stable test identifier, e.g. the qualified method name
+     */
+    public static void seedForTest(String testName) {
+        random.set(new SplittableRandom(mix(RUN_SEED ^ hash(testName))));
+    }
+    
+    /**
+     * Get the calling thread's generator, for callers that need other distributions
+     */
+    public static SplittableRandom generator() {
+        return random.get();
+    }
+    
+    private static long hash(String value) {
+        // 64-bit FNV-1a, stable across JVMs unlike identity-based hashes
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+    
+    private static long mix(long z) {
+        // SplitMix64 finalizer spreads similar test names over unrelated seeds
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+    
+    private static String randomFrom(byte[] alphabet, int length) {
+        SplittableRandom rng = random.get();
+        byte[] chars = new byte[length];
         for (int i = 0; i < length; i++) {
-            sb.append(ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length())));
+            chars[i] = alphabet[rng.nextInt(alphabet.length)];
         }
-        return sb.toString();
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+    
+    /**
+     * Generate random alphanumeric string
+     */
+    public static String randomString(int length) {
+        return randomFrom(ALPHANUMERIC_BYTES, length);
     }
     
     /**
      * Generate random alphabetic string
      */
     public static String randomAlphabetic(int length) {
-        String alphabet = ALPHA_UPPER + ALPHA_LOWER;
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
-        }
-        return sb.toString();
+        return randomFrom(ALPHABETIC_BYTES, length);
     }
     
     /**
      * Generate random numeric string
      */
     public static String randomNumeric(int length) {
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            sb.append(NUMERIC.charAt(random.nextInt(NUMERIC.length())));
-        }
-        return sb.toString();
+        return randomFrom(NUMERIC_BYTES, length);
     }
     
     /**
@@ -61,28 +134,29 @@ public class DataGeneratorUtils {
     }
     
     public static String randomEmail(String prefix) {
-        return String.format("%s_%s@example.com", prefix, randomString(8).toLowerCase());
+        return randomEmail(prefix, "example.com");
     }
     
     /**
      * Generate random email with specific domain
      */
     public static String randomEmail(String prefix, String domain) {
-        return String.format("%s_%s@%s", prefix, randomString(8).toLowerCase(), domain);
+        return prefix + "_" + randomFrom(LOWER_ALPHANUMERIC_BYTES, 8) + "@" + domain;
     }
     
     /**
      * Generate random username
      */
     public static String randomUsername() {
-        return "user_" + randomString(8).toLowerCase();
+        return "user_" + randomFrom(LOWER_ALPHANUMERIC_BYTES, 8);
     }
     
     /**
      * Generate random password with specific criteria
      */
     public static String randomPassword(int length, boolean includeSpecial) {
-        String chars = ALPHANUMERIC + (includeSpecial ? SPECIAL_CHARS : "");
+        SplittableRandom random = DataGeneratorUtils.random.get();
+        String chars = includeSpecial ? ALPHANUMERIC + SPECIAL_CHARS : ALPHANUMERIC;
         StringBuilder password = new StringBuilder(length);
         
         // Ensure at least one uppercase, lowercase, and number
@@ -100,55 +174,52 @@ public class DataGeneratorUtils {
         }
         
         // Shuffle the password
-        return shuffleString(password.toString());
+        return shuffleString(password.toString(), random);
     }
     
     /**
      * Generate random integer between min and max (inclusive)
      */
     public static int randomInt(int min, int max) {
-        return random.nextInt(max - min + 1) + min;
+        return random.get().nextInt(max - min + 1) + min;
     }
     
     /**
      * Generate random long between min and max
      */
     public static long randomLong(long min, long max) {
-        return min + (long) (random.nextDouble() * (max - min));
+        return min + (long) (random.get().nextDouble() * (max - min));
     }
     
     /**
      * Generate random double between min and max
      */
     public static double randomDouble(double min, double max) {
-        return min + (random.nextDouble() * (max - min));
+        return min + (random.get().nextDouble() * (max - min));
     }
     
     /**
      * Generate random phone number
      */
     public static String randomPhoneNumber() {
-        return String.format("+1-%s-%s-%s", 
-            randomNumeric(3), 
-            randomNumeric(3), 
-            randomNumeric(4));
+        return "+1-" + randomNumeric(3) + "-" + randomNumeric(3) + "-" + randomNumeric(4);
     }
     
     /**
      * Generate random US phone number
      */
     public static String randomUSPhoneNumber() {
-        return String.format("(%s) %s-%s", 
-            randomNumeric(3), 
-            randomNumeric(3), 
-            randomNumeric(4));
+        return "(" + randomNumeric(3) + ") " + randomNumeric(3) + "-" + randomNumeric(4);
     }
     
     /**
-     * Generate UUID
+     * Generate version 4 UUID from the seeded generator
      */
     public static String randomUUID() {
-        return UUID.randomUUID().toString();
+        SplittableRandom rng = random.get();
+        long most = (rng.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (rng.nextLong() & ~(0x3L << 62)) | (0x2L << 62);
+        return new UUID(most, least).toString();
     }
     
     /**
@@ -169,32 +240,28 @@ public class DataGeneratorUtils {
      * Generate random boolean
      */
     public static boolean randomBoolean() {
-        return random.nextBoolean();
+        return random.get().nextBoolean();
     }
     
     /**
      * Pick random element from array
      */
     public static <T> T randomElement(T[] array) {
-        return array[random.nextInt(array.length)];
+        return array[random.get().nextInt(array.length)];
     }
     
     /**
      * Generate random first name
      */
     public static String randomFirstName() {
-        String[] names = {"John", "Jane", "Michael", "Emily", "David", "Sarah", 
-                         "Robert", "Lisa", "James", "Mary", "William", "Patricia"};
-        return randomElement(names);
+        return randomElement(FIRST_NAMES);
     }
     
     /**
      * Generate random last name
      */
     public static String randomLastName() {
-        String[] names = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
-                         "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez"};
-        return randomElement(names);
+        return randomElement(LAST_NAMES);
     }
     
     /**
@@ -208,29 +275,82 @@ public class DataGeneratorUtils {
      * Generate random company name
      */
     public static String randomCompanyName() {
-        String[] adjectives = {"Global", "Advanced", "Dynamic", "Innovative", "Premier"};
-        String[] nouns = {"Solutions", "Technologies", "Systems", "Enterprises", "Industries"};
-        return randomElement(adjectives) + " " + randomElement(nouns);
+        return randomElement(COMPANY_ADJECTIVES) + " " + randomElement(COMPANY_NOUNS);
     }
     
     /**
      * Generate random URL
      */
     public static String randomUrl() {
-        return "https://" + randomString(8).toLowerCase() + ".com";
+        return "https://" + randomFrom(LOWER_ALPHANUMERIC_BYTES, 8) + ".com";
     }
     
     /**
      * Generate random color hex code
      */
     public static String randomHexColor() {
-        return String.format("#%06x", random.nextInt(0xffffff + 1));
+        return String.format("#%06x", random.get().nextInt(0xffffff + 1));
+    }
+    
+    /**
+     * Generate n random email addresses
+     */
+    public static String[] randomEmails(int count) {
+        return randomEmails(count, "test", "example.com");
+    }
+    
+    public static String[] randomEmails(int count, String prefix, String domain) {
+        String[] emails = new String[count];
+        for (int i = 0; i < count; i++) {
+            emails[i] = randomEmail(prefix, domain);
+        }
+        return emails;
+    }
+    
+    /**
+     * Generate n random usernames
+     */
+    public static String[] randomUsernames(int count) {
+        String[] usernames = new String[count];
+        for (int i = 0; i < count; i++) {
+            usernames[i] = randomUsername();
+        }
+        return usernames;
+    }
+    
+    /**
+     * Fill an array with random alphanumeric strings
+     */
+    public static void fillRandomStrings(String[] target, int length) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = randomFrom(ALPHANUMERIC_BYTES, length);
+        }
+    }
+    
+    /**
+     * Fill an array with random integers between min and max (inclusive)
+     */
+    public static void fillRandomInts(int[] target, int min, int max) {
+        SplittableRandom rng = random.get();
+        int bound = max - min + 1;
+        for (int i = 0; i < target.length; i++) {
+            target[i] = rng.nextInt(bound) + min;
+        }
+    }
+    
+    /**
+     * Generate n random integers between min and max (inclusive)
+     */
+    public static int[] randomInts(int count, int min, int max) {
+        int[] values = new int[count];
+        fillRandomInts(values, min, max);
+        return values;
     }
     
     /**
      * Shuffle string characters
      */
-    private static String shuffleString(String input) {
+    private static String shuffleString(String input, SplittableRandom random) {
         char[] characters = input.toCharArray();
         for (int i = characters.length - 1; i > 0; i--) {
             int j = random.nextInt(i + 1);
@@ -1,24 +1,75 @@
 package com.utils;
 
+import com.config.ConfigManager;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.ScreenshotScale;
+import com.microsoft.playwright.options.ScreenshotType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * Utility class for screenshot operations
  * Handles screenshot capture with automatic naming and directory management
+ *
+ * Screenshots are captured as bytes on the test thread and written by ScreenshotWriter
+ * in the background, so the returned path may not exist yet; call flush() before
+ * reading it. Generated names end in a UniqueIdGenerator ID and never collide, even
+ * across parallel threads and forks.
+ *
+ * Format, JPEG quality and scale come from ConfigManager (config file, PW_ environment
+ * variables or system properties):
+ *   -Dscreenshot.format=png|jpeg          (default png; keep png for visual comparison)
+ *   -Dscreenshot.failure.format=png|jpeg  (default jpeg, failure shots are full page)
+ *   -Dscreenshot.quality=0-100            (JPEG only, default 80)
+ *   -Dscreenshot.scale=device|css         (css gives one pixel per CSS pixel)
+ *
+ * Auto-named screenshots are deduplicated by SHA-256: a capture identical to an earlier
+ * one is not written again and its path is returned instead (-Dscreenshot.dedup=false
+ * turns this off). index.tsv in the screenshot directory maps every requested name to
+ * the file that holds it.
  */
 public class ScreenshotUtils {
     private static final Logger logger = LoggerFactory.getLogger(ScreenshotUtils.class);
     private static final String SCREENSHOT_DIR = "target/screenshots";
-    private static final String DATE_FORMAT = "yyyyMMdd_HHmmss";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final Pattern UNSAFE_CHARS = Pattern.compile("[^a-zA-Z0-9]");
+    private static final String INDEX_FILE = "index.tsv";
+    
+    private static final ScreenshotType FORMAT = type(ConfigManager.getScreenshotFormat());
+    private static final ScreenshotType FAILURE_FORMAT = type(ConfigManager.getScreenshotFailureFormat());
+    private static final int QUALITY = ConfigManager.getScreenshotQuality();
+    private static final ScreenshotScale SCALE =
+        ScreenshotScale.valueOf(ConfigManager.getScreenshotScale().toUpperCase(Locale.ROOT));
+    private static final boolean DEDUP = ConfigManager.isScreenshotDedup();
+    
+    private static final Map<String, String> storedByHash = new ConcurrentHashMap<>();
+    private static final Queue<String> index = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
     
     static {
         createScreenshotDirectory();
@@ -39,86 +90,194 @@ public class ScreenshotUtils {
         }
     }
     
+    private static ScreenshotType type(String format) {
+        switch (format.toLowerCase(Locale.ROOT)) {
+            case "png":
+                return ScreenshotType.PNG;
+            case "jpg":
+            case "jpeg":
+                return ScreenshotType.JPEG;
+            default:
+                throw new IllegalArgumentException("Unsupported screenshot format: " + format);
+        }
+    }
+    
+    /**
+     * Page screenshot options with the configured format, quality and scale
+     * Add a clip or full-page flag and pass them to takeScreenshot(page, name, options).
+     */
+    public static Page.ScreenshotOptions defaultOptions() {
+        return options(FORMAT);
+    }
+    
+    /**
+     * Lossless PNG page options at the configured scale, whatever screenshot.format is
+     * Visual comparisons use these; PNG requests must not carry a JPEG quality.
+     */
+    public static Page.ScreenshotOptions pngOptions() {
+        return options(ScreenshotType.PNG);
+    }
+    
+    /**
+     * Element counterpart of pngOptions(), at the same scale
+     */
+    public static Locator.ScreenshotOptions elementPngOptions() {
+        return new Locator.ScreenshotOptions().setType(ScreenshotType.PNG).setScale(SCALE);
+    }
+    
+    private static Page.ScreenshotOptions options(ScreenshotType type) {
+        Page.ScreenshotOptions options = new Page.ScreenshotOptions().setType(type).setScale(SCALE);
+        if (type == ScreenshotType.JPEG) {
+            options.setQuality(QUALITY);
+        }
+        return options;
+    }
+    
+    private static Locator.ScreenshotOptions elementOptions() {
+        Locator.ScreenshotOptions options = new Locator.ScreenshotOptions().setType(FORMAT).setScale(SCALE);
+        if (FORMAT == ScreenshotType.JPEG) {
+            options.setQuality(QUALITY);
+        }
+        return options;
+    }
+    
+    /**
+     * Build a collision-free file name: prefix_timestamp_uniqueId.png (or .jpg)
+     */
+    private static String uniqueFileName(String prefix, ScreenshotType type) {
+        return prefix + "_" + LocalDateTime.now().format(DATE_FORMAT) + "_" + UniqueIdGenerator.nextId()
+            + (type == ScreenshotType.JPEG ? ".jpg" : ".png");
+    }
+    
+    /**
+     * Queue an auto-named capture, or point at the stored copy if it is a duplicate
+     */
+    private static String saveUnique(String fileName, byte[] bytes) {
+        if (!DEDUP) {
+            return save(fileName, bytes);
+        }
+        String hash = HexFormat.of().formatHex(sha256.get().digest(bytes));
+        String filePath = SCREENSHOT_DIR + "/" + fileName;
+        String stored = storedByHash.putIfAbsent(hash, filePath);
+        if (stored != null) {
+            index.add(fileName + "\t" + stored + "\t" + hash);
+            ArtifactSink sink = ArtifactSink.current();
+            if (sink != null) {
+                sink.reference(ArtifactSink.entryName(Paths.get(filePath)), ArtifactSink.entryName(Paths.get(stored)));
+            }
+            logger.info("Screenshot {} identical to {}, not written again", fileName, stored);
+            return stored;
+        }
+        index.add(fileName + "\t" + filePath + "\t" + hash);
+        ScreenshotWriter.submit(Paths.get(filePath), bytes);
+        logger.info("Screenshot queued: {}", filePath);
+        return filePath;
+    }
+    
+    private static String save(String fileName, byte[] bytes) {
+        String filePath = SCREENSHOT_DIR + "/" + fileName;
+        index.add(fileName + "\t" + filePath + "\t-");
+        ScreenshotWriter.submit(Paths.get(filePath), bytes);
+        logger.info("Screenshot queued: {}", filePath);
+        return filePath;
+    }
+    
     /**
      * Take screenshot with auto-generated filename
      */
     public static String takeScreenshot(Page page, String testName) {
-        String timestamp = new SimpleDateFormat(DATE_FORMAT).format(new Date());
-        String fileName = String.format("%s_%s.png", testName, timestamp);
-        String filePath = SCREENSHOT_DIR + "/" + fileName;
-        
+        return takeScreenshot(page, testName, defaultOptions());
+    }
+    
+    /**
+     * Take screenshot with auto-generated filename and explicit options (type, quality, scale, clip)
+     * Any path set on the options is ignored.
+     */
+    public static String takeScreenshot(Page page, String testName, Page.ScreenshotOptions options) {
+        options.setPath(null);
+        ScreenshotType type = options.type != null ? options.type : ScreenshotType.PNG;
+        String fileName = uniqueFileName(testName, type);
         logger.info("Taking screenshot: {}", fileName);
-        page.screenshot(new Page.ScreenshotOptions().setPath(Paths.get(filePath)));
-        logger.info("Screenshot saved: {}", filePath);
-        
-        return filePath;
+        return saveUnique(fileName, page.screenshot(options));
+    }
+    
+    /**
+     * Take screenshot of a region of the page, in CSS pixels
+     */
+    public static String takeClippedScreenshot(Page page, String testName, double x, double y, double width, double height) {
+        return takeScreenshot(page, testName, defaultOptions().setClip(x, y, width, height));
     }
     
     /**
      * Take full page screenshot
      */
     public static String takeFullPageScreenshot(Page page, String testName) {
-        String timestamp = new SimpleDateFormat(DATE_FORMAT).format(new Date());
-        String fileName = String.format("%s_fullpage_%s.png", testName, timestamp);
-        String filePath = SCREENSHOT_DIR + "/" + fileName;
-        
-        logger.info("Taking full page screenshot: {}", fileName);
-        page.screenshot(new Page.ScreenshotOptions()
-            .setPath(Paths.get(filePath))
-            .setFullPage(true));
-        logger.info("Full page screenshot saved: {}", filePath);
-        
-        return filePath;
+        return takeScreenshot(page, testName + "_fullpage", defaultOptions().setFullPage(true));
     }
     
     /**
      * Take screenshot of specific element
      */
     public static String takeElementScreenshot(Locator locator, String elementName) {
-        String timestamp = new SimpleDateFormat(DATE_FORMAT).format(new Date());
-        String fileName = String.format("element_%s_%s.png", elementName, timestamp);
-        String filePath = SCREENSHOT_DIR + "/" + fileName;
-        
+        String fileName = uniqueFileName("element_" + elementName, FORMAT);
         logger.info("Taking element screenshot: {}", fileName);
-        locator.screenshot(new Locator.ScreenshotOptions().setPath(Paths.get(filePath)));
-        logger.info("Element screenshot saved: {}", filePath);
-        
-        return filePath;
+        return saveUnique(fileName, locator.screenshot(elementOptions()));
     }
     
     /**
      * Take screenshot with custom filename
+     * Always written under the given name (no deduplication); the format follows the extension.
      */
     public static String takeScreenshot(Page page, String fileName, boolean fullPage) {
-        String filePath = SCREENSHOT_DIR + "/" + fileName;
-        
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        ScreenshotType type = lower.endsWith(".jpg") || lower.endsWith(".jpeg") ? ScreenshotType.JPEG : ScreenshotType.PNG;
         logger.info("Taking screenshot: {}", fileName);
-        Page.ScreenshotOptions options = new Page.ScreenshotOptions()
-            .setPath(Paths.get(filePath))
-            .setFullPage(fullPage);
-        
-        page.screenshot(options);
-        logger.info("Screenshot saved: {}", filePath);
-        
-        return filePath;
+        return save(fileName, page.screenshot(options(type).setFullPage(fullPage)));
     }
     
     /**
      * Take screenshot on test failure
+     * Full page, in screenshot.failure.format (JPEG by default)
      */
     public static String takeFailureScreenshot(Page page, String testName, String failureReason) {
-        String timestamp = new SimpleDateFormat(DATE_FORMAT).format(new Date());
-        String sanitizedReason = failureReason.replaceAll("[^a-zA-Z0-9]", "_");
-        String fileName = String.format("FAILED_%s_%s_%s.png", testName, sanitizedReason, timestamp);
-        String filePath = SCREENSHOT_DIR + "/" + fileName;
+        String sanitizedReason = UNSAFE_CHARS.matcher(failureReason).replaceAll("_");
+        String fileName = uniqueFileName("FAILED_" + testName + "_" + sanitizedReason, FAILURE_FORMAT);
         
         logger.error("Test failed - taking screenshot: {}", fileName);
-        page.screenshot(new Page.ScreenshotOptions()
-            .setPath(Paths.get(filePath))
-            .setFullPage(true));
-        logger.info("Failure screenshot saved: {}", filePath);
-        
-        return filePath;
+        return saveUnique(fileName, page.screenshot(options(FAILURE_FORMAT).setFullPage(true)));
+    }
+    
+    /**
+     * Wait until every queued screenshot has been written (at most 60 seconds)
+     * @return true if nothing is left pending
+     */
+    public static boolean flush() {
+        int pending = ScreenshotWriter.pending();
+        boolean flushed = ScreenshotWriter.flush(60, TimeUnit.SECONDS);
+        if (pending > 0) {
+            logger.info("Flushed {} pending screenshot(s)", pending);
+        }
+        writeIndex();
+        return flushed;
+    }
+    
+    /**
+     * Write index.tsv: requested name, stored file and content hash for every capture
+     */
+    private static void writeIndex() {
+        // In archive mode the archive manifest records the same mapping
+        if (index.isEmpty() || ArtifactSink.isEnabled()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder("name\tfile\tsha256\n");
+        for (String entry : index) {
+            sb.append(entry).append('\n');
+        }
+        try {
+            Files.write(Paths.get(SCREENSHOT_DIR, INDEX_FILE), sb.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.error("Failed to write screenshot index: {}", e.getMessage());
+        }
     }
     
     /**
@@ -0,0 +1,112 @@
+package com.utils;
+
+import com.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded background writer for captured screenshot bytes
+ *
+ * Writes run on a small daemon pool (-Dscreenshot.writers, default 2). When the queue
+ * (-Dscreenshot.queue, default 32 images) is full, the capturing thread writes the
+ * image itself, which throttles capture instead of letting queued images pile up in
+ * memory. Call flush() before reading the files back or before the JVM exits.
+ *
+ * With artifacts.archive set, images go into the run's ArtifactSink instead of loose files.
+ */
+public final class ScreenshotWriter {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotWriter.class);
+
+    private static final ThreadPoolExecutor pool = createPool();
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static final Object idle = new Object();
+
+    private ScreenshotWriter() {}
+
+    private static ThreadPoolExecutor createPool() {
+        int writers = Math.max(1, ConfigManager.getScreenshotWriters());
+        int queue = Math.max(1, ConfigManager.getScreenshotQueue());
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(writers, writers, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queue),
+            runnable -> {
+                Thread thread = new Thread(runnable, "screenshot-writer-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Queue bytes to be written to a file
+     */
+    public static void submit(Path target, byte[] bytes) {
+        pending.incrementAndGet();
+        pool.execute(() -> write(target, bytes));
+    }
+
+    private static void write(Path target, byte[] bytes) {
+        ArtifactSink sink = ArtifactSink.current();
+        try {
+            if (sink != null) {
+                sink.add(ArtifactSink.entryName(target), bytes);
+                return;
+            }
+            Path parent = target.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(target, bytes);
+            logger.debug("Screenshot written: {}", target);
+        } catch (IOException e) {
+            logger.error("Failed to write screenshot {}: {}", target, e.getMessage());
+        } finally {
+            if (pending.decrementAndGet() == 0) {
+                synchronized (idle) {
+                    idle.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Block until every submitted screenshot is on disk
+     * @return true if all writes finished within the timeout
+     */
+    public static boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idle) {
+            while (pending.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    logger.warn("Timed out flushing screenshots, {} still pending", pending.get());
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(idle, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of screenshots captured but not yet written
+     */
+    public static int pending() {
+        return pending.get();
+    }
+}
@@ -1,10 +1,20 @@
 package com.utils;
 
+import java.util.regex.Pattern;
+
 /**
  * Utility class for common String operations in tests
  * Provides string manipulation, validation, and formatting methods
+ *
+ * These run inside data-provider and assertion loops, so nothing recompiles a regex
+ * per call: simple character classes are hand-written scans and the rest use the
+ * precompiled patterns below. "Whitespace" means the regex \s class
+ * (space, tab, line feed, vertical tab, form feed, carriage return) throughout.
  */
 public class StringUtils {
+    private static final Pattern CAMEL_CASE_DELIMITERS = Pattern.compile("[\\s_-]+");
+    private static final Pattern WHITESPACE_RUN = Pattern.compile("\\s+");
+    private static final Pattern URL = Pattern.compile("^(https?|ftp)://[^\\s/$.?#].[^\\s]*$");
     
     /**
      * Check if string is null or empty
@@ -41,14 +51,36 @@ public class StringUtils {
      * Remove all whitespace from string
      */
     public static String removeWhitespace(String str) {
-        return isNullOrEmpty(str) ? str : str.replaceAll("\\s+", "");
+        if (isNullOrEmpty(str)) return str;
+        
+        StringBuilder result = new StringBuilder(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (!isWhitespace(c)) result.append(c);
+        }
+        return result.toString();
     }
     
     /**
      * Normalize whitespace (multiple spaces to single space)
      */
     public static String normalizeWhitespace(String str) {
-        return isNullOrEmpty(str) ? str : str.trim().replaceAll("\\s+", " ");
+        if (isNullOrEmpty(str)) return str;
+        
+        String trimmed = str.trim();
+        StringBuilder result = new StringBuilder(trimmed.length());
+        boolean inRun = false;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (isWhitespace(c)) {
+                if (!inRun) result.append(' ');
+                inRun = true;
+            } else {
+                result.append(c);
+                inRun = false;
+            }
+        }
+        return result.toString();
     }
     
     /**
@@ -57,7 +89,7 @@ public class StringUtils {
     public static String toCamelCase(String str) {
         if (isNullOrEmpty(str)) return str;
         
-        String[] words = str.split("[\\s_-]+");
+        String[] words = CAMEL_CASE_DELIMITERS.split(str);
         StringBuilder result = new StringBuilder(words[0].toLowerCase());
         
         for (int i = 1; i < words.length; i++) {
@@ -73,9 +105,7 @@ public class StringUtils {
     public static String toSnakeCase(String str) {
         if (isNullOrEmpty(str)) return str;
         
-        return str.replaceAll("([a-z])([A-Z])", "$1_$2")
-                  .replaceAll("[\\s-]+", "_")
-                  .toLowerCase();
+        return splitWords(str, '_', '-').toLowerCase();
     }
     
     /**
@@ -84,9 +114,30 @@ public class StringUtils {
     public static String toKebabCase(String str) {
         if (isNullOrEmpty(str)) return str;
         
-        return str.replaceAll("([a-z])([A-Z])", "$1-$2")
-                  .replaceAll("[\\s_]+", "-")
-                  .toLowerCase();
+        return splitWords(str, '-', '_').toLowerCase();
+    }
+    
+    /**
+     * Insert a separator at lower-to-upper case boundaries and collapse runs of
+     * whitespace and the other separator into one separator
+     */
+    private static String splitWords(String str, char separator, char other) {
+        StringBuilder result = new StringBuilder(str.length() + 8);
+        boolean inRun = false;
+        char previous = 0;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (isWhitespace(c) || c == other) {
+                if (!inRun) result.append(separator);
+                inRun = true;
+            } else {
+                if (isLower(previous) && isUpper(c)) result.append(separator);
+                result.append(c);
+                inRun = false;
+            }
+            previous = c;
+        }
+        return result.toString();
     }
     
     /**
@@ -103,7 +154,7 @@ public class StringUtils {
     public static String capitalizeWords(String str) {
         if (isNullOrEmpty(str)) return str;
         
-        String[] words = str.split("\\s+");
+        String[] words = WHITESPACE_RUN.split(str);
         StringBuilder result = new StringBuilder();
         
         for (int i = 0; i < words.length; i++) {
@@ -144,7 +195,10 @@ public class StringUtils {
      */
     public static boolean isNumeric(String str) {
         if (isNullOrEmpty(str)) return false;
-        return str.matches("\\d+");
+        for (int i = 0; i < str.length(); i++) {
+            if (!isDigit(str.charAt(i))) return false;
+        }
+        return true;
     }
     
     /**
@@ -152,7 +206,10 @@ public class StringUtils {
      */
     public static boolean isAlphabetic(String str) {
         if (isNullOrEmpty(str)) return false;
-        return str.matches("[a-zA-Z]+");
+        for (int i = 0; i < str.length(); i++) {
+            if (!isLetter(str.charAt(i))) return false;
+        }
+        return true;
     }
     
     /**
@@ -160,16 +217,42 @@ public class StringUtils {
      */
     public static boolean isAlphanumeric(String str) {
         if (isNullOrEmpty(str)) return false;
-        return str.matches("[a-zA-Z0-9]+");
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (!isLetter(c) && !isDigit(c)) return false;
+        }
+        return true;
     }
     
     /**
      * Check if string is valid email format
+     * Same rules as ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$
      */
     public static boolean isValidEmail(String email) {
         if (isNullOrEmpty(email)) return false;
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-        return email.matches(emailRegex);
+        
+        int at = email.indexOf('@');
+        if (at < 1) return false;
+        for (int i = 0; i < at; i++) {
+            char c = email.charAt(i);
+            if (!isLetter(c) && !isDigit(c) && c != '+' && c != '_' && c != '.' && c != '-') return false;
+        }
+        
+        // Domain: at least one character before the last dot, then two or more letters
+        int lastDot = -1;
+        for (int i = at + 1; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isLetter(c) && !isDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot < at + 2 || email.length() - lastDot - 1 < 2) return false;
+        for (int i = lastDot + 1; i < email.length(); i++) {
+            if (!isLetter(email.charAt(i))) return false;
+        }
+        return true;
     }
     
     /**
@@ -177,8 +260,7 @@ public class StringUtils {
      */
     public static boolean isValidUrl(String url) {
         if (isNullOrEmpty(url)) return false;
-        String urlRegex = "^(https?|ftp)://[^\\s/$.?#].[^\\s]*$";
-        return url.matches(urlRegex);
+        return URL.matcher(url).matches();
     }
     
     /**
@@ -186,7 +268,13 @@ public class StringUtils {
      */
     public static String removeSpecialCharacters(String str) {
         if (isNullOrEmpty(str)) return str;
-        return str.replaceAll("[^a-zA-Z0-9\\s]", "");
+        
+        StringBuilder result = new StringBuilder(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (isLetter(c) || isDigit(c) || isWhitespace(c)) result.append(c);
+        }
+        return result.toString();
     }
     
     /**
@@ -211,7 +299,13 @@ public class StringUtils {
      */
     public static String extractNumbers(String str) {
         if (isNullOrEmpty(str)) return "";
-        return str.replaceAll("[^0-9]", "");
+        
+        StringBuilder result = new StringBuilder(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (isDigit(c)) result.append(c);
+        }
+        return result.toString();
     }
     
     /**
@@ -219,7 +313,13 @@ public class StringUtils {
      */
     public static String extractLetters(String str) {
         if (isNullOrEmpty(str)) return "";
-        return str.replaceAll("[^a-zA-Z]", "");
+        
+        StringBuilder result = new StringBuilder(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (isLetter(c)) result.append(c);
+        }
+        return result.toString();
     }
     
     /**
@@ -265,11 +365,40 @@ public class StringUtils {
     public static String toSlug(String str) {
         if (isNullOrEmpty(str)) return str;
         
-        return str.toLowerCase()
-                  .trim()
-                  .replaceAll("[^a-z0-9\\s-]", "")
-                  .replaceAll("\\s+", "-")
-                  .replaceAll("-+", "-")
-                  .replaceAll("^-|-$", "");
+        String lower = str.toLowerCase().trim();
+        StringBuilder result = new StringBuilder(lower.length());
+        boolean pendingDash = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if ((c >= 'a' && c <= 'z') || isDigit(c)) {
+                // Runs of whitespace and dashes become one dash, dropped at either end
+                if (pendingDash && result.length() > 0) result.append('-');
+                result.append(c);
+                pendingDash = false;
+            } else if (c == '-' || isWhitespace(c)) {
+                pendingDash = true;
+            }
+        }
+        return result.toString();
+    }
+    
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private static boolean isLetter(char c) {
+        return isLower(c) || isUpper(c);
+    }
+    
+    private static boolean isLower(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+    
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
     }
 }
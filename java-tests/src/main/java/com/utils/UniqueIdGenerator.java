@@ -0,0 +1,136 @@
+package com.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free generator of IDs that are unique across threads, surefire forks and agents
+ *
+ * An ID packs three parts, encoded as 18 lower-case base-36 characters:
+ *   worker   (7 chars)  - 10-bit node ID + 22-bit process ID
+ *   block    (seconds since 2024-01-01, 34 bits)
+ *   sequence (20 bits, about one million IDs per second per JVM)
+ *
+ * Block and sequence share one AtomicLong, so a single getAndIncrement reserves an ID.
+ * A JVM never issues IDs from a block later than the wall clock, which keeps IDs unique
+ * against a later JVM that is handed the same process ID.
+ *
+ * The node ID is taken from -Dworker.id (0-1023) when set, otherwise from a hash of the
+ * host name. Set worker.id per CI agent to make cross-machine uniqueness a guarantee
+ * rather than a near-certainty; forks on one machine are always distinct by process ID.
+ */
+public final class UniqueIdGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(UniqueIdGenerator.class);
+
+    private static final long EPOCH_SECONDS = 1704067200L; // 2024-01-01T00:00:00Z
+    private static final int SEQUENCE_BITS = 20;
+    private static final int PID_BITS = 22;
+    private static final int NODE_BITS = 10;
+    private static final int WORKER_CHARS = 7;
+    private static final int COUNTER_CHARS = 11;
+    private static final char[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private static final long WORKER_ID = resolveWorkerId();
+    private static final String WORKER_PREFIX = encode(WORKER_ID, WORKER_CHARS);
+    private static final AtomicLong counter = new AtomicLong(currentBlock() << SEQUENCE_BITS);
+
+    private UniqueIdGenerator() {}
+
+    /**
+     * Generate the next unique ID
+     * @return 18-character lower-case alphanumeric string
+     */
+    public static String nextId() {
+        long value = counter.getAndIncrement();
+        long block = value >>> SEQUENCE_BITS;
+        while (block > currentBlock()) {
+            // Sequence for this second is exhausted; wait for the clock rather than borrow ahead
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next ID block", e);
+            }
+        }
+        return WORKER_PREFIX + encode(value, COUNTER_CHARS);
+    }
+
+    /**
+     * Generate a unique username, e.g. "user_01hx3k2a0000000a1b"
+     */
+    public static String uniqueUsername() {
+        return "user_" + nextId();
+    }
+
+    /**
+     * Generate a unique email address with the given prefix at example.com
+     */
+    public static String uniqueEmail(String prefix) {
+        return uniqueEmail(prefix, "example.com");
+    }
+
+    /**
+     * Generate a unique email address with the given prefix and domain
+     */
+    public static String uniqueEmail(String prefix, String domain) {
+        return prefix + "_" + nextId() + "@" + domain;
+    }
+
+    /**
+     * Get this JVM's worker ID (node ID in the high bits, process ID in the low bits)
+     */
+    public static long getWorkerId() {
+        return WORKER_ID;
+    }
+
+    private static long currentBlock() {
+        return System.currentTimeMillis() / 1000 - EPOCH_SECONDS;
+    }
+
+    private static long resolveWorkerId() {
+        long pid = ProcessHandle.current().pid() & ((1L << PID_BITS) - 1);
+        String configured = System.getProperty("worker.id");
+        long node;
+        if (configured != null) {
+            node = Long.parseLong(configured);
+            if (node < 0 || node >= 1L << NODE_BITS) {
+                throw new IllegalArgumentException("worker.id must be between 0 and " + ((1L << NODE_BITS) - 1));
+            }
+        } else {
+            node = hostHash() & ((1L << NODE_BITS) - 1);
+        }
+        long workerId = node << PID_BITS | pid;
+        logger.info("Unique ID worker: node {} / pid {} ({})", node, pid, configured != null ? "worker.id" : "host hash");
+        return workerId;
+    }
+
+    private static long hostHash() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = System.getenv().getOrDefault("HOSTNAME", "localhost");
+        }
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < host.length(); i++) {
+            h ^= host.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * Fixed-width base-36 encoding, so IDs from one worker sort by issue order
+     */
+    private static String encode(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS[(int) Long.remainderUnsigned(value, 36)];
+            value = Long.divideUnsigned(value, 36);
+        }
+        return new String(chars);
+    }
+}
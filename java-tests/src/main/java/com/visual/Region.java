@@ -0,0 +1,26 @@
+package com.visual;
+
+/**
+ * Rectangle in image pixels, used for ignore masks and to report differing tiles
+ */
+public record Region(int x, int y, int width, int height) {
+
+    public Region {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Region size must not be negative: " + width + "x" + height);
+        }
+    }
+
+    public boolean contains(int px, int py) {
+        return px >= x && py >= y && px < x + width && py < y + height;
+    }
+
+    public boolean intersects(int rx, int ry, int rwidth, int rheight) {
+        return rx < x + width && x < rx + rwidth && ry < y + height && y < ry + rheight;
+    }
+
+    @Override
+    public String toString() {
+        return width + "x" + height + "@" + x + "," + y;
+    }
+}
@@ -0,0 +1,175 @@
+package com.visual;
+
+import com.config.ConfigManager;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.utils.ScreenshotUtils;
+import com.utils.ScreenshotWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Visual regression assertions against PNG baselines
+ *
+ * Baselines live in -Dvisual.baselines (default src/test/resources/baselines) as
+ * &lt;name&gt;.png. A missing baseline is written from the current capture and the
+ * assertion fails, so a new baseline is always reviewed before it is trusted; run with
+ * -Dvisual.update=true to accept current captures as the new baselines.
+ *
+ * On a mismatch the actual image and a diff image are written to target/visual-diffs.
+ * Decoded baselines are cached until the file changes.
+ *
+ * Tolerance comes from -Dvisual.tolerance (default 8 per channel). All three settings
+ * are read through ConfigManager, so the environment's properties file can set them too.
+ *
+ * Usage:
+ *   VisualAssert.assertMatchesBaseline(page, "home-page", new Region(0, 0, 1280, 80));
+ *   VisualAssert.assertMatchesBaseline(page.locator("#cart"), "cart-widget");
+ */
+public final class VisualAssert {
+    private static final Logger logger = LoggerFactory.getLogger(VisualAssert.class);
+    private static final Path BASELINE_DIR = Paths.get(ConfigManager.getVisualBaselines());
+    private static final Path DIFF_DIR = Paths.get("target/visual-diffs");
+    private static final boolean UPDATE = ConfigManager.isVisualUpdate();
+    private static final int TOLERANCE = ConfigManager.getVisualTolerance();
+
+    private static final Map<Path, Baseline> baselines = new ConcurrentHashMap<>();
+
+    private VisualAssert() {}
+
+    /**
+     * Decoded baseline and the modification time it was read at
+     */
+    private record Baseline(FileTime modified, int[] pixels, int width, int height) {}
+
+    /**
+     * Assert the visible page matches its baseline
+     */
+    public static void assertMatchesBaseline(Page page, String name, Region... ignore) {
+        byte[] png = page.screenshot(ScreenshotUtils.pngOptions());
+        assertMatchesBaseline(png, name, ignore);
+    }
+
+    /**
+     * Assert an element matches its baseline; ignore regions are relative to the element
+     */
+    public static void assertMatchesBaseline(Locator locator, String name, Region... ignore) {
+        byte[] png = locator.screenshot(ScreenshotUtils.elementPngOptions());
+        assertMatchesBaseline(png, name, ignore);
+    }
+
+    /**
+     * Assert captured PNG bytes match the baseline called name
+     */
+    public static void assertMatchesBaseline(byte[] png, String name, Region... ignore) {
+        logger.info("Comparing screenshot with baseline: {}", name);
+        Path baselinePath = BASELINE_DIR.resolve(name + ".png");
+        if (UPDATE || !Files.exists(baselinePath)) {
+            boolean existed = Files.exists(baselinePath);
+            writeBaseline(baselinePath, png);
+            if (UPDATE) {
+                logger.info("Baseline {}: {}", existed ? "updated" : "created", baselinePath);
+                return;
+            }
+            Assert.fail("No baseline for '" + name + "'; wrote current screenshot to " + baselinePath + " for review");
+        }
+
+        BufferedImage actual = decode(png);
+        Baseline baseline = load(baselinePath);
+        VisualDiffResult result = compare(actual, baseline, false, ignore);
+        if (!result.matches()) {
+            ScreenshotWriter.submit(DIFF_DIR.resolve(name + "-actual.png"), png);
+            if (!result.sizeMismatch()) {
+                writeDiffImage(compare(actual, baseline, true, ignore), name);
+            }
+        }
+        Assert.assertTrue(result.matches(), "Screenshot '" + name + "' does not match baseline: " + result.describe());
+        logger.info("✓ Screenshot '{}' matches baseline ({} µs)", name, result.nanos() / 1000);
+    }
+
+    /**
+     * Compare PNG bytes with a baseline file without asserting
+     */
+    public static VisualDiffResult compareToBaseline(byte[] png, Path baselinePath, Region... ignore) {
+        return compare(decode(png), load(baselinePath), false, ignore);
+    }
+
+    private static VisualDiffResult compare(BufferedImage actual, Baseline baseline, boolean renderDiff, Region... ignore) {
+        if (actual.getWidth() != baseline.width() || actual.getHeight() != baseline.height()) {
+            return VisualDiffResult.sizeMismatch(0);
+        }
+        return new VisualComparator().tolerance(TOLERANCE).ignore(ignore)
+            .compare(VisualComparator.pixels(actual), baseline.pixels(), baseline.width(), baseline.height(), renderDiff);
+    }
+
+    private static Baseline load(Path path) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            Baseline cached = baselines.get(path);
+            if (cached != null && cached.modified().equals(modified)) {
+                return cached;
+            }
+            BufferedImage image = ImageIO.read(path.toFile());
+            if (image == null) {
+                throw new IOException("Not a readable image");
+            }
+            Baseline baseline = new Baseline(modified, VisualComparator.pixels(image), image.getWidth(), image.getHeight());
+            baselines.put(path, baseline);
+            return baseline;
+        } catch (IOException e) {
+            logger.error("Failed to read baseline {}: {}", path, e.getMessage());
+            throw new RuntimeException("Failed to read baseline: " + path, e);
+        }
+    }
+
+    private static BufferedImage decode(byte[] png) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                throw new IOException("Not a readable image");
+            }
+            return image;
+        } catch (IOException e) {
+            logger.error("Failed to decode screenshot: {}", e.getMessage());
+            throw new RuntimeException("Failed to decode screenshot", e);
+        }
+    }
+
+    private static void writeBaseline(Path path, byte[] png) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, png);
+        } catch (IOException e) {
+            logger.error("Failed to write baseline {}: {}", path, e.getMessage());
+            throw new RuntimeException("Failed to write baseline: " + path, e);
+        }
+    }
+
+    /**
+     * Diff image for the report, written in the background
+     */
+    private static void writeDiffImage(VisualDiffResult full, String name) {
+        Path target = DIFF_DIR.resolve(name + "-diff.png");
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(full.diffImage(), "png", out);
+            ScreenshotWriter.submit(target, out.toByteArray());
+            logger.error("Visual diff for '{}': {} differing pixel(s), written to {}", name, full.differentPixels(), target);
+        } catch (IOException e) {
+            logger.error("Failed to encode diff image for {}: {}", name, e.getMessage());
+        }
+    }
+}
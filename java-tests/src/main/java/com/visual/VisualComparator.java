@@ -0,0 +1,325 @@
+package com.visual;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tiled, parallel pixel comparison of a screenshot against a baseline
+ *
+ * The image is cut into square tiles that are compared on the common ForkJoinPool.
+ * Rows inside a tile are compared with Arrays.mismatch, so identical regions cost a
+ * vectorized memory scan; only differing pixels go through the tolerance, ignore-mask
+ * and anti-aliasing checks. In fail-fast mode (the default) all workers stop as soon
+ * as one tile is known to differ.
+ *
+ * A pixel differs when any ARGB channel is more than the tolerance apart. A differing
+ * pixel counts as anti-aliasing when, in both directions, its colour lies within the
+ * per-channel colour range of the other image's 3x3 neighbourhood: a blend of the
+ * colours on either side of an edge, or an edge shifted by one pixel. Flat areas have
+ * no range to hide in, so real changes there are still reported.
+ *
+ * Usage:
+ *   VisualDiffResult result = new VisualComparator()
+ *       .tolerance(8)
+ *       .ignore(new Region(0, 0, 1920, 60))
+ *       .compare(actual, baseline);
+ */
+public class VisualComparator {
+    private static final int TILES_PER_TASK = 4;
+    private static final int DIFF_COLOR = 0xFFFF0000;
+    private static final int ANTI_ALIAS_COLOR = 0xFFFFD700;
+
+    private int tileSize = 256;
+    private int tolerance = 8;
+    private boolean antiAliasing = true;
+    private boolean failFast = true;
+    private final List<Region> ignored = new ArrayList<>();
+
+    /**
+     * Tile edge in pixels (default 256)
+     */
+    public VisualComparator tileSize(int tileSize) {
+        if (tileSize < 8) {
+            throw new IllegalArgumentException("Tile size must be at least 8: " + tileSize);
+        }
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Largest per-channel difference still treated as equal, 0-255 (default 8)
+     */
+    public VisualComparator tolerance(int tolerance) {
+        if (tolerance < 0 || tolerance > 255) {
+            throw new IllegalArgumentException("Tolerance must be between 0 and 255: " + tolerance);
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Accept anti-aliased edge pixels (default true)
+     */
+    public VisualComparator antiAliasing(boolean antiAliasing) {
+        this.antiAliasing = antiAliasing;
+        return this;
+    }
+
+    /**
+     * Stop at the first differing tile (default true); false counts every pixel
+     */
+    public VisualComparator failFast(boolean failFast) {
+        this.failFast = failFast;
+        return this;
+    }
+
+    /**
+     * Exclude regions (clocks, ads, avatars) from the comparison
+     */
+    public VisualComparator ignore(Region... regions) {
+        ignored.addAll(Arrays.asList(regions));
+        return this;
+    }
+
+    public VisualDiffResult compare(BufferedImage actual, BufferedImage baseline) {
+        if (actual.getWidth() != baseline.getWidth() || actual.getHeight() != baseline.getHeight()) {
+            return VisualDiffResult.sizeMismatch(0);
+        }
+        return compare(pixels(actual), pixels(baseline), actual.getWidth(), actual.getHeight(), false);
+    }
+
+    /**
+     * Compare and always render a diff image, counting every differing pixel
+     */
+    public VisualDiffResult diff(BufferedImage actual, BufferedImage baseline) {
+        if (actual.getWidth() != baseline.getWidth() || actual.getHeight() != baseline.getHeight()) {
+            return VisualDiffResult.sizeMismatch(0);
+        }
+        return compare(pixels(actual), pixels(baseline), actual.getWidth(), actual.getHeight(), true);
+    }
+
+    /**
+     * Compare ARGB pixel arrays of the same width and height (row-major)
+     * @param renderDiff also count every differing pixel and render a diff image
+     */
+    public VisualDiffResult compare(int[] actual, int[] baseline, int width, int height, boolean renderDiff) {
+        long start = System.nanoTime();
+        if (actual.length != baseline.length || actual.length != width * height) {
+            return VisualDiffResult.sizeMismatch(System.nanoTime() - start);
+        }
+        BufferedImage diffImage = renderDiff ? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB) : null;
+        Comparison comparison = new Comparison(actual, baseline, width, height, diffImage);
+        ForkJoinPool.commonPool().invoke(new TileTask(comparison, 0, comparison.tileCount));
+
+        int first = comparison.firstTile.get();
+        Region firstDifference = first == Integer.MAX_VALUE ? null : comparison.tileRegion(first);
+        return new VisualDiffResult(firstDifference == null, false, comparison.differentPixels.sum(),
+            comparison.antiAliasedPixels.sum(), firstDifference, diffImage, System.nanoTime() - start);
+    }
+
+    /**
+     * Get ARGB pixels, without copying when the image is already backed by an int ARGB array
+     */
+    public static int[] pixels(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB && image.getRaster().getDataBuffer() instanceof DataBufferInt) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    /**
+     * State shared by the tile tasks of one comparison
+     */
+    private final class Comparison {
+        final int[] actual;
+        final int[] baseline;
+        final int width;
+        final int height;
+        final int tilesX;
+        final int tileCount;
+        final int[] diff;
+        final boolean stopEarly;
+        final AtomicInteger firstTile = new AtomicInteger(Integer.MAX_VALUE);
+        final LongAdder differentPixels = new LongAdder();
+        final LongAdder antiAliasedPixels = new LongAdder();
+        volatile boolean stop;
+
+        Comparison(int[] actual, int[] baseline, int width, int height, BufferedImage diffImage) {
+            this.actual = actual;
+            this.baseline = baseline;
+            this.width = width;
+            this.height = height;
+            this.tilesX = (width + tileSize - 1) / tileSize;
+            this.tileCount = tilesX * ((height + tileSize - 1) / tileSize);
+            // Render straight into the diff image's backing array
+            this.diff = diffImage == null ? null : pixels(diffImage);
+            this.stopEarly = failFast && diffImage == null;
+        }
+
+        Region tileRegion(int tile) {
+            int x = (tile % tilesX) * tileSize;
+            int y = (tile / tilesX) * tileSize;
+            return new Region(x, y, Math.min(tileSize, width - x), Math.min(tileSize, height - y));
+        }
+
+        void compareTile(int tile) {
+            Region region = tileRegion(tile);
+            int x0 = region.x();
+            int x1 = x0 + region.width();
+            List<Region> masks = masksFor(region);
+            long different = 0;
+            long antiAliased = 0;
+
+            for (int y = region.y(); y < region.y() + region.height(); y++) {
+                int row = y * width;
+                if (diff != null) {
+                    fade(row + x0, row + x1);
+                }
+                int i = row + x0;
+                int end = row + x1;
+                while (i < end) {
+                    int offset = Arrays.mismatch(actual, i, end, baseline, i, end);
+                    if (offset < 0) {
+                        break;
+                    }
+                    int p = i + offset;
+                    i = p + 1;
+                    int x = p - row;
+                    if (similar(actual[p], baseline[p]) || masked(masks, x, y)) {
+                        continue;
+                    }
+                    if (antiAliasing && antiAliased(x, y)) {
+                        antiAliased++;
+                        if (diff != null) {
+                            diff[p] = ANTI_ALIAS_COLOR;
+                        }
+                        continue;
+                    }
+                    different++;
+                    if (diff != null) {
+                        diff[p] = DIFF_COLOR;
+                    } else if (stopEarly) {
+                        record(tile, different, antiAliased);
+                        stop = true;
+                        return;
+                    }
+                }
+            }
+            record(tile, different, antiAliased);
+        }
+
+        private void record(int tile, long different, long antiAliased) {
+            differentPixels.add(different);
+            antiAliasedPixels.add(antiAliased);
+            if (different > 0) {
+                firstTile.accumulateAndGet(tile, Math::min);
+            }
+        }
+
+        private List<Region> masksFor(Region tile) {
+            List<Region> masks = null;
+            for (Region region : ignored) {
+                if (region.intersects(tile.x(), tile.y(), tile.width(), tile.height())) {
+                    if (masks == null) {
+                        masks = new ArrayList<>(2);
+                    }
+                    masks.add(region);
+                }
+            }
+            return masks;
+        }
+
+        private boolean masked(List<Region> masks, int x, int y) {
+            if (masks != null) {
+                for (Region mask : masks) {
+                    if (mask.contains(x, y)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean antiAliased(int x, int y) {
+            return withinNeighbourRange(actual[y * width + x], baseline, x, y)
+                && withinNeighbourRange(baseline[y * width + x], actual, x, y);
+        }
+
+        private boolean withinNeighbourRange(int color, int[] image, int x, int y) {
+            for (int shift = 0; shift < 32; shift += 8) {
+                int min = 255;
+                int max = 0;
+                for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                    for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                        int channel = (image[ny * width + nx] >>> shift) & 0xFF;
+                        min = Math.min(min, channel);
+                        max = Math.max(max, channel);
+                    }
+                }
+                int channel = (color >>> shift) & 0xFF;
+                if (channel < min - tolerance || channel > max + tolerance) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Diff image background: the actual image as light grey
+         */
+        private void fade(int from, int to) {
+            for (int p = from; p < to; p++) {
+                int c = actual[p];
+                int luma = (((c >> 16) & 0xFF) * 77 + ((c >> 8) & 0xFF) * 150 + (c & 0xFF) * 29) >> 8;
+                int light = 255 - (255 - luma) / 4;
+                diff[p] = 0xFF000000 | light << 16 | light << 8 | light;
+            }
+        }
+    }
+
+    private boolean similar(int a, int b) {
+        if (a == b) {
+            return true;
+        }
+        return Math.abs((a >>> 24) - (b >>> 24)) <= tolerance
+            && Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF)) <= tolerance
+            && Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)) <= tolerance
+            && Math.abs((a & 0xFF) - (b & 0xFF)) <= tolerance;
+    }
+
+    // Fork/join tasks are never serialized
+    @SuppressWarnings("serial")
+    private static final class TileTask extends RecursiveAction {
+        private final Comparison comparison;
+        private final int from;
+        private final int to;
+
+        TileTask(Comparison comparison, int from, int to) {
+            this.comparison = comparison;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (comparison.stop) {
+                return;
+            }
+            if (to - from <= TILES_PER_TASK) {
+                for (int tile = from; tile < to && !comparison.stop; tile++) {
+                    comparison.compareTile(tile);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileTask(comparison, from, middle), new TileTask(comparison, middle, to));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.visual;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Outcome of comparing a screenshot with its baseline
+ *
+ * In fail-fast mode the pixel counts only cover the tiles examined before the first
+ * difference was found; diffImage is present when a full comparison was requested.
+ *
+ * @param matches           true when no pixel differs beyond tolerance outside ignored regions
+ * @param sizeMismatch      true when the images have different dimensions (nothing compared)
+ * @param differentPixels   pixels that differ beyond tolerance and are not anti-aliasing
+ * @param antiAliasedPixels differing pixels accepted as anti-aliasing
+ * @param firstDifference   first differing tile, or null
+ * @param diffImage         faded actual image with differences in red and anti-aliasing in yellow, or null
+ * @param nanos             comparison time, excluding image decoding
+ */
+public record VisualDiffResult(
+    boolean matches,
+    boolean sizeMismatch,
+    long differentPixels,
+    long antiAliasedPixels,
+    Region firstDifference,
+    BufferedImage diffImage,
+    long nanos
+) {
+
+    static VisualDiffResult sizeMismatch(long nanos) {
+        return new VisualDiffResult(false, true, 0, 0, null, null, nanos);
+    }
+
+    public String describe() {
+        if (sizeMismatch) {
+            return "image sizes differ";
+        }
+        if (matches) {
+            return "images match (" + antiAliasedPixels + " anti-aliased pixel(s) tolerated)";
+        }
+        return differentPixels + " differing pixel(s), first in tile " + firstDifference;
+    }
+}
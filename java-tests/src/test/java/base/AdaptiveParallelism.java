@@ -0,0 +1,317 @@
+package base;
+
+import com.config.ConfigManager;
+import com.logging.LogHelper;
+import com.sun.management.OperatingSystemMXBean;
+import org.slf4j.Logger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits test starts only while the host has CPU and memory to spare, growing and
+ * shrinking the number of tests running at once (config key parallel.adaptive=true)
+ *
+ * TestNG still starts up to thread-count threads, but each invocation waits for a slot
+ * before its @BeforeMethod opens a context and gives the slot back when the test body
+ * returns (or it is skipped). Once a second the controller samples host CPU load,
+ * available memory (MemAvailable from /proc/meminfo) and the RSS of this JVM's child
+ * processes (Playwright drivers and browsers, from /proc/&lt;pid&gt;/status):
+ *
+ * - CPU above 90%, or available memory below the reserve: the limit drops by a quarter,
+ *   then holds for three samples while running tests drain
+ * - tests waiting, CPU below 75%, and memory for one more test above the reserve (one
+ *   test is estimated at the child RSS divided by the tests running): the limit grows by one
+ *
+ * The limit stays between 1 and the suite's thread count. Every sample is written to
+ * target/parallelism.tsv, and each run appends its final, mean and peak level to
+ * test-history/parallelism.tsv; the next run starts from the last final level.
+ *
+ * Config key parallel.adaptive.reserve.mb (default 512) sets the memory kept free. The controller
+ * is off in worker and daemon JVMs, which run one test at a time.
+ */
+public class AdaptiveParallelism implements IInvokedMethodListener, ITestListener, ISuiteListener {
+    private static final Logger log = LogHelper.getLogger(AdaptiveParallelism.class);
+    private static final double CPU_HIGH = 0.90;
+    private static final double CPU_LOW = 0.75;
+    private static final long SAMPLE_MILLIS = 1000;
+    // Samples to wait after a decrease before decreasing again, so running tests can drain
+    private static final int COOLDOWN_SAMPLES = 3;
+    private static final Path TIMELINE_FILE = Paths.get("target/parallelism.tsv");
+    private static final Path HISTORY_FILE = Paths.get("test-history/parallelism.tsv");
+
+    private static final Object lock = new Object();
+    private static final ThreadLocal<Boolean> admitted = ThreadLocal.withInitial(() -> false);
+    // Guarded by lock
+    private static boolean enabled;
+    private static int limit;
+    private static int max;
+    private static int running;
+    private static int waiting;
+    private static int peak;
+    private static long samples;
+    private static long limitTotal;
+    private static int cooldown;
+
+    private static ScheduledExecutorService sampler;
+    private static BufferedWriter timeline;
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (!ConfigManager.isParallelAdaptive() || WorkerRunner.isActive() || TestDaemon.isActive()) {
+            return;
+        }
+        XmlSuite xmlSuite = suite.getXmlSuite();
+        int threads = xmlSuite.getParallel().isParallel() ? xmlSuite.getThreadCount() : 1;
+        for (XmlTest test : xmlSuite.getTests()) {
+            if (test.getParallel().isParallel()) {
+                threads = Math.max(threads, test.getThreadCount());
+            }
+        }
+        threads = Math.max(threads, xmlSuite.getDataProviderThreadCount());
+        int initial = Math.min(threads, previousLevel().orElse(Math.max(1, threads / 2)));
+        synchronized (lock) {
+            enabled = true;
+            max = threads;
+            limit = Math.max(1, initial);
+            peak = 0;
+            samples = 0;
+            limitTotal = 0;
+            // The first CPU reading mostly covers JVM and suite startup
+            cooldown = 1;
+        }
+        try {
+            Files.createDirectories(TIMELINE_FILE.toAbsolutePath().getParent());
+            timeline = Files.newBufferedWriter(TIMELINE_FILE);
+            timeline.write("# time\tlimit\trunning\twaiting\tcpu\tmem_available_mb\tbrowser_rss_mb");
+            timeline.newLine();
+        } catch (IOException e) {
+            log.warn("Cannot write {}: {}", TIMELINE_FILE, e.toString());
+            timeline = null;
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "parallelism-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(AdaptiveParallelism::adjust, SAMPLE_MILLIS, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+        log.info("Adaptive parallelism for '{}': starting at {} of up to {} test(s)", suite.getName(), limit, max);
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        if (admitted.get() || !(method.isTestMethod() || result.getMethod().isBeforeMethodConfiguration())) {
+            return;
+        }
+        synchronized (lock) {
+            if (!enabled) {
+                return;
+            }
+            waiting++;
+            try {
+                while (enabled && running >= limit) {
+                    lock.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                waiting--;
+            }
+            running++;
+            peak = Math.max(peak, running);
+        }
+        admitted.set(true);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (method.isTestMethod()) {
+            release();
+        }
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        // A failed @BeforeMethod skips the test without invoking it
+        release();
+    }
+
+    private static void release() {
+        if (!admitted.get()) {
+            return;
+        }
+        admitted.set(false);
+        synchronized (lock) {
+            running--;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * One controller step: sample the host and move the limit
+     */
+    private static void adjust() {
+        double cpu = cpuLoad();
+        long available = availableMemoryMb();
+        long rss = childRssMb();
+        long reserve = ConfigManager.getParallelAdaptiveReserveMb();
+        synchronized (lock) {
+            if (!enabled) {
+                return;
+            }
+            int previous = limit;
+            long perTest = running > 0 ? rss / running : 0;
+            boolean overloaded = cpu > CPU_HIGH || (available >= 0 && available < reserve);
+            if (cooldown > 0) {
+                cooldown--;
+            } else if (overloaded) {
+                limit = Math.max(1, limit - Math.max(1, limit / 4));
+                cooldown = COOLDOWN_SAMPLES;
+            } else if (waiting > 0 && running >= limit && limit < max && cpu >= 0 && cpu < CPU_LOW
+                    && (available < 0 || available - perTest > reserve)) {
+                limit++;
+            }
+            if (limit != previous) {
+                log.info("Parallelism {} -> {} (cpu {}%, {} MB available, browsers {} MB, {} running, {} waiting)", previous, limit,
+                    Math.round(cpu * 100), available, rss, running, waiting);
+                lock.notifyAll();
+            }
+            samples++;
+            limitTotal += limit;
+            if (timeline != null) {
+                try {
+                    timeline.write(Instant.now() + "\t" + limit + "\t" + running + "\t" + waiting + "\t"
+                        + String.format("%.2f", cpu) + "\t" + available + "\t" + rss);
+                    timeline.newLine();
+                } catch (IOException e) {
+                    log.warn("Cannot write {}: {}", TIMELINE_FILE, e.toString());
+                    timeline = null;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        int finalLimit;
+        double mean;
+        synchronized (lock) {
+            if (!enabled) {
+                return;
+            }
+            enabled = false;
+            lock.notifyAll();
+            finalLimit = limit;
+            mean = samples > 0 ? (double) limitTotal / samples : limit;
+        }
+        sampler.shutdownNow();
+        try {
+            if (timeline != null) {
+                timeline.close();
+            }
+            Files.createDirectories(HISTORY_FILE.toAbsolutePath().getParent());
+            boolean header = !Files.exists(HISTORY_FILE);
+            try (BufferedWriter writer = Files.newBufferedWriter(HISTORY_FILE, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (header) {
+                    writer.write("# time\tsuite\tfinal\tmean\tpeak_running\tmax");
+                    writer.newLine();
+                }
+                writer.write(Instant.now() + "\t" + suite.getName() + "\t" + finalLimit + "\t" + String.format("%.1f", mean)
+                    + "\t" + peak + "\t" + max);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            log.error("Failed to record parallelism levels in {}", HISTORY_FILE, e);
+        }
+        log.info("Adaptive parallelism for '{}': final {}, mean {}, peak {} running of {} thread(s); samples in {}",
+            suite.getName(), finalLimit, String.format("%.1f", mean), peak, max, TIMELINE_FILE);
+    }
+
+    /**
+     * Final level of the last recorded run
+     */
+    private static Optional<Integer> previousLevel() {
+        if (!Files.isRegularFile(HISTORY_FILE)) {
+            return Optional.empty();
+        }
+        try {
+            List<String> lines = Files.readAllLines(HISTORY_FILE);
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                String[] fields = lines.get(i).split("\t");
+                if (!lines.get(i).startsWith("#") && fields.length >= 3) {
+                    return Optional.of(Integer.parseInt(fields[2]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable parallelism history {}: {}", HISTORY_FILE, e.toString());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Host CPU load from 0 to 1, or -1 when unknown
+     */
+    private static double cpuLoad() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof OperatingSystemMXBean os) {
+            return os.getCpuLoad();
+        }
+        return -1;
+    }
+
+    /**
+     * MemAvailable in MB, falling back to free memory off Linux; -1 when unknown
+     */
+    private static long availableMemoryMb() {
+        long kb = procKilobytes(Paths.get("/proc/meminfo"), "MemAvailable:");
+        if (kb >= 0) {
+            return kb / 1024;
+        }
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof OperatingSystemMXBean os) {
+            return os.getFreeMemorySize() / (1024 * 1024);
+        }
+        return -1;
+    }
+
+    /**
+     * Resident memory of all processes started by this JVM, in MB
+     */
+    private static long childRssMb() {
+        long kb = 0;
+        for (ProcessHandle child : (Iterable<ProcessHandle>) ProcessHandle.current().descendants()::iterator) {
+            kb += Math.max(0, procKilobytes(Paths.get("/proc", Long.toString(child.pid()), "status"), "VmRSS:"));
+        }
+        return kb / 1024;
+    }
+
+    private static long procKilobytes(Path file, String key) {
+        try {
+            for (String line : Files.readAllLines(file)) {
+                if (line.startsWith(key)) {
+                    return Long.parseLong(line.substring(key.length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // process exited, or not Linux
+        }
+        return -1;
+    }
+}
@@ -3,19 +3,38 @@ package base;
 import org.slf4j.Logger;
 import com.logging.LogHelper;
 
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 
-// import com.config.ConfigManager;
+import com.config.ConfigManager;
 import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.Page;
+import com.utils.ArtifactSink;
+import com.utils.ScreenshotUtils;
 
+/**
+ * Base class for UI tests
+ *
+ * Every test method gets its own browser context and page, opened before the method and
+ * closed after it. They are held per thread, because TestNG runs a method's configuration
+ * and test methods on one thread, so methods running in parallel (parallel="methods")
+ * never share a page. Use page() and context() instead of fields, and create page
+ * objects from page() inside the test.
+ *
+ * Rows of a parallel data provider get their fixture from
+ * BrowserContextManager.openRowSession(), so at most parallel.rows of them hold a
+ * context at once.
+ */
 public class BaseTest {
     protected static final Logger logger = LogHelper.getLogger(BaseTest.class);
-    protected BrowserContext context;
-    protected Page page;
+
+    private static final ThreadLocal<BrowserContext> context = new ThreadLocal<>();
+    private static final ThreadLocal<Page> page = new ThreadLocal<>();
+    private static final ThreadLocal<BrowserContextManager.RowSession> rowSession = new ThreadLocal<>();
 
     @BeforeSuite(alwaysRun = true)
     public void setupSuite() {
@@ -27,37 +46,80 @@ public class BaseTest {
     }
 
     @BeforeMethod(alwaysRun = true)
-    public void setupTest() {
+    public void setupTest(ITestResult result) {
+        BrowserContext methodContext;
+        Page methodPage;
+        if (isParallelRow(result.getMethod())) {
+            BrowserContextManager.RowSession session = BrowserContextManager.openRowSession();
+            rowSession.set(session);
+            methodContext = session.context();
+            methodPage = session.page();
+        } else {
+            methodContext = BrowserContextManager.newContext();
+            methodPage = methodContext.newPage();
+        }
+        TracingListener.finishAtTeardown(methodContext);
+        methodPage.setDefaultTimeout(ConfigManager.getTimeout());
+        context.set(methodContext);
+        page.set(methodPage);
+    }
 
-        // String testName = Thread.currentThread().getStackTrace()[2].getMethodName();
-        // // Test-level setup can be done here
-        // logger.info("Setting up test method");
+    private static boolean isParallelRow(ITestNGMethod method) {
+        return method.isDataDriven() && method.getDataProviderMethod() != null
+            && method.getDataProviderMethod().isParallel();
+    }
 
-        // this.context = BrowserContextManager.getAuthenticatedContext();
-        // page = context.newPage();
-        // page.setDefaultTimeout(ConfigManager.getTimeout());
+    /**
+     * Page owned by the running test method
+     */
+    protected Page page() {
+        Page current = page.get();
+        if (current == null) {
+            throw new IllegalStateException("No page on this thread; page() is available from @BeforeMethod to @AfterMethod");
+        }
+        return current;
+    }
 
+    /**
+     * Browser context owned by the running test method
+     */
+    protected BrowserContext context() {
+        BrowserContext current = context.get();
+        if (current == null) {
+            throw new IllegalStateException("No context on this thread; context() is available from @BeforeMethod to @AfterMethod");
+        }
+        return current;
+    }
 
-    }  
-    
     @AfterMethod(alwaysRun = true)
-    public void tearDownTest(org.testng.ITestResult result) {
+    public void tearDownTest(ITestResult result) {
         // Test-level teardown can be done here
     logger.info("Tearing down test method");
-        
-        // Keep browser open on failure for debugging
-        if (result.getStatus() == org.testng.ITestResult.FAILURE) {
+
+        if (result.getStatus() == ITestResult.FAILURE) {
+            // The failure state is kept in the trace saved by TracingListener
             logger.error("Test FAILED: {}", result.getName());
-            logger.error("Keeping page open for inspection. Close manually.");
-            // Don't close page/context on failure - allows manual inspection
-            return;
         }
-        
-        if (page != null) {
-            page.close();
-        }
-        if (context != null) {
-            context.close();
+
+        releaseFixture(result);
+    }
+
+    /**
+     * Finish the trace of this thread's context and page and close them; no-op once released
+     * RetryListener calls this before a deferred retry waits, so the failed attempt does not
+     * hold its context (or row permit) while other tests run.
+     */
+    static void releaseFixture(ITestResult result) {
+        BrowserContext methodContext = context.get();
+        BrowserContextManager.RowSession session = rowSession.get();
+        context.remove();
+        page.remove();
+        rowSession.remove();
+        if (session != null) {
+            // Frees the row's parallel.rows slot as well
+            session.close(result);
+        } else if (methodContext != null) {
+            TracingListener.finishAndClose(methodContext, result, methodContext::close);
         }
     }
 
@@ -65,6 +127,13 @@ public class BaseTest {
     public void tearDownSuite() {
         // Suite-level teardown can be done here
     logger.info("Tearing down test suite");
+        ScreenshotUtils.flush();
+        if (WorkerRunner.isActive() || TestDaemon.isActive()) {
+            // The worker or daemon closes the archive and browsers when it shuts down
+            return;
+        }
+        ArtifactSink.closeRun();
+        BrowserContextManager.closeWorkerBrowsers();
         // BrowserContextManager.closeBrowser();
     }
 }
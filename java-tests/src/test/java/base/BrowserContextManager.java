@@ -7,8 +7,16 @@ import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Playwright;
 import org.slf4j.Logger;
+import org.testng.ITestResult;
 import com.logging.LogHelper;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
 public class BrowserContextManager {
 
     private static final Logger log = LogHelper.getLogger(BrowserContextManager.class);
@@ -16,32 +24,80 @@ public class BrowserContextManager {
     private static Browser browser;
     private static BrowserContext authenticatedContext;
     private static Playwright playwright;
+    private static Thread browserOwner;
+    private static volatile BrowserTopology topology;
+
+    // Playwright objects must only be used by one thread at a time, so every other thread
+    // (e.g. a parallel data provider worker) leases a browser from a fixed pool while it
+    // has contexts open. TestNG starts new provider threads for every parallel method,
+    // so browsers are not kept per thread.
+    private static final Object poolLock = new Object();
+    private static final Deque<PooledBrowser> idleBrowsers = new ArrayDeque<>();
+    private static final Queue<PooledBrowser> pooledBrowsers = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<PooledBrowser> leasedBrowser = new ThreadLocal<>();
+    // Guarded by poolLock
+    private static int pooledCount;
+    private static final Semaphore rowPermits = new Semaphore(ConfigManager.getParallelRows(), true);
 
     public static void initializeBrowserContext() {
+        if (ConfigManager.getBrowserInstances() > 0) {
+            // Contexts are placed on a fixed set of shared browsers instead of per-thread ones
+            if (topology == null) {
+                topology = BrowserTopology.start(ConfigManager.getBrowser().toLowerCase(), isHeadless(),
+                    ConfigManager.getBrowserInstances(), ConfigManager.getBrowserContexts());
+            }
+            return;
+        }
+        if (browser != null && browser.isConnected()) {
+            // A WorkerRunner runs one suite per method and keeps the browser between them
+            return;
+        }
         playwright = Playwright.create();
+        browser = launch(playwright);
+        browserOwner = Thread.currentThread();
+    }
+
+    private static Browser launch(Playwright playwright) {
         String browserType = ConfigManager.getBrowser().toLowerCase();
-        
-        // Detect CI environment (GitHub Actions sets CI=true)
-        boolean isHeadless = Boolean.parseBoolean(System.getenv().getOrDefault("CI", "false"));
-        
+        boolean isHeadless = isHeadless();
+        BrowserType type = browserType(playwright, browserType);
+
+        // With browser.server set, JVMs share browser processes and only own their connection
+        String endpoint = BrowserServer.endpoint(browserType, isHeadless);
+        if (endpoint != null) {
+            log.info("Connecting to {} browser server: {}", browserType, endpoint);
+            return type.connect(endpoint);
+        }
         log.info("Creating Playwright and launching browser: {} (headless: {})", browserType, isHeadless);
+        return type.launch(new BrowserType.LaunchOptions().setHeadless(isHeadless));
+    }
+
+    static boolean isHeadless() {
+        // Detect CI environment (GitHub Actions sets CI=true)
+        return Boolean.parseBoolean(System.getenv().getOrDefault("CI", "false"));
+    }
+
+    static BrowserType browserType(Playwright playwright, String browserType) {
+        BrowserType type;
         switch (browserType) {
             case "chromium":
-                browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(isHeadless));
+                type = playwright.chromium();
                 break;
             case "firefox":
-                browser = playwright.firefox().launch(new BrowserType.LaunchOptions().setHeadless(isHeadless));
+                type = playwright.firefox();
                 break;
             case "webkit":
-                browser = playwright.webkit().launch(new BrowserType.LaunchOptions().setHeadless(isHeadless));
+                type = playwright.webkit();
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported browser type: " + browserType);
         }
+        return type;
     }
-    
+
     public static void performLogin() {
-    BrowserContext context = browser.newContext();
+        // Not traced: the context outlives any single test
+        BrowserContext context = openContext();
         Page page = context.newPage();
         page.navigate(ConfigManager.getBaseUrl());
 
@@ -56,29 +112,282 @@ public class BrowserContextManager {
 
         authenticatedContext = context;
     }
-    
+
     public static BrowserContext getAuthenticatedContext() {
         if (authenticatedContext == null) {
             throw new IllegalStateException("Authenticated context is not initialized. Call performLogin() first.");
         }
         return authenticatedContext;
     }
-    
+
+    /**
+     * A pooled browser with its own Playwright, and the contexts its lessee has open
+     */
+    private static final class PooledBrowser {
+        final Playwright playwright;
+        final Browser browser;
+        // Only touched by the leasing thread
+        int openContexts;
+
+        PooledBrowser(Playwright playwright, Browser browser) {
+            this.playwright = playwright;
+            this.browser = browser;
+        }
+    }
+
+    /**
+     * Get the browser used by the calling thread
+     * The suite thread uses the browser from initializeBrowserContext(); other threads get
+     * the pooled browser leased to them, which they only hold while they have contexts
+     * open, so call this between newContext() and closing that context.
+     */
     public static Browser getBrowser() {
+        if (topology != null) {
+            throw new IllegalStateException("browser.instances is set; contexts are placed by newContext(), not on a thread's browser");
+        }
         if (browser == null) {
             throw new IllegalStateException("Browser is not initialized. Call initializeBrowserContext() first.");
         }
-        return browser;
+        if (Thread.currentThread() == browserOwner) {
+            return browser;
+        }
+        PooledBrowser leased = leasedBrowser.get();
+        if (leased == null) {
+            throw new IllegalStateException("No pooled browser leased on this thread; open contexts with newContext()");
+        }
+        return leased.browser;
+    }
+
+    /**
+     * Browser for this thread's next context: the one it holds, or an idle pooled one
+     * Blocks while max(parallel.rows, parallel.methods) browsers are all leased.
+     */
+    private static PooledBrowser leaseBrowser() {
+        PooledBrowser leased = leasedBrowser.get();
+        if (leased != null && leased.browser.isConnected()) {
+            return leased;
+        }
+        leasedBrowser.remove();
+        int size = Math.max(1, Math.max(ConfigManager.getParallelRows(), ConfigManager.getParallelMethods()));
+        synchronized (poolLock) {
+            while (true) {
+                PooledBrowser idle = idleBrowsers.pollLast();
+                if (idle != null) {
+                    if (idle.browser.isConnected()) {
+                        leasedBrowser.set(idle);
+                        return idle;
+                    }
+                    // Its browser crashed or was closed; free the slot
+                    pooledBrowsers.remove(idle);
+                    pooledCount--;
+                    continue;
+                }
+                if (pooledCount < size) {
+                    pooledCount++;
+                    break;
+                }
+                try {
+                    poolLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a pooled browser", e);
+                }
+            }
+        }
+        Playwright threadPlaywright = null;
+        try {
+            threadPlaywright = Playwright.create();
+            PooledBrowser pooled = new PooledBrowser(threadPlaywright, launch(threadPlaywright));
+            pooledBrowsers.add(pooled);
+            leasedBrowser.set(pooled);
+            log.info("Launched pooled browser {} of {} for thread: {}", pooledBrowsers.size(), size, Thread.currentThread().getName());
+            return pooled;
+        } catch (RuntimeException e) {
+            if (threadPlaywright != null) {
+                threadPlaywright.close();
+            }
+            synchronized (poolLock) {
+                pooledCount--;
+                poolLock.notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Hand a thread's pooled browser back once it has no context open
+     */
+    private static void returnBrowser(PooledBrowser pooled) {
+        if (leasedBrowser.get() == pooled) {
+            leasedBrowser.remove();
+        }
+        synchronized (poolLock) {
+            if (pooledBrowsers.contains(pooled)) {
+                idleBrowsers.addLast(pooled);
+            }
+            poolLock.notifyAll();
+        }
+    }
+
+    /**
+     * Open a context on the calling thread's browser, traced unless tracing is off
+     */
+    public static BrowserContext newContext() {
+        BrowserContext context = openContext();
+        TracingListener.start(context);
+        return context;
+    }
+
+    private static BrowserContext openContext() {
+        if (topology != null) {
+            return topology.newContext();
+        }
+        if (Thread.currentThread() == browserOwner || browser == null) {
+            return getBrowser().newContext();
+        }
+        PooledBrowser pooled = leaseBrowser();
+        BrowserContext context;
+        try {
+            context = pooled.browser.newContext();
+        } catch (RuntimeException e) {
+            if (pooled.openContexts == 0) {
+                returnBrowser(pooled);
+            }
+            throw e;
+        }
+        pooled.openContexts++;
+        context.onClose(closed -> {
+            if (--pooled.openContexts == 0) {
+                returnBrowser(pooled);
+            }
+        });
+        return context;
     }
-    
+
+    /**
+     * Open a page in its own context, traced unless tracing is off
+     * Closing the page closes the context too, which frees its browser.contexts slot
+     * or pooled browser.
+     */
     public static Page getNewPage() {
-        if (browser == null) {
-            throw new IllegalStateException("Browser is not initialized. Call initializeBrowserContext() first.");
+        BrowserContext context = openContext();
+        Page page = context.newPage();
+        // Like Browser.newPage(): the context belongs to the page
+        page.onClose(closed -> context.close());
+        TracingListener.start(context);
+        return page;
+    }
+
+    /**
+     * Open an isolated context and page for one data-provider row
+     * Blocks while parallel.rows sessions are already open, so the number of live
+     * contexts stays capped however many provider threads TestNG runs. BaseTest opens
+     * one for every row of a parallel data provider; tests use page() as usual.
+     */
+    public static RowSession openRowSession() {
+        try {
+            rowPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a row context", e);
+        }
+        try {
+            BrowserContext context = newContext();
+            return new RowSession(context, context.newPage());
+        } catch (RuntimeException e) {
+            rowPermits.release();
+            throw e;
         }
-        return browser.newPage();
     }
-    
+
+    /**
+     * Context and page owned by a single data row; closing it frees the slot
+     */
+    public static final class RowSession implements AutoCloseable {
+        private final BrowserContext context;
+        private final Page page;
+        private boolean closed;
+
+        private RowSession(BrowserContext context, Page page) {
+            this.context = context;
+            this.page = page;
+        }
+
+        public BrowserContext context() {
+            return context;
+        }
+
+        public Page page() {
+            return page;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // A traced context stays open until its trace is saved or discarded
+            if (!TracingListener.closeAfterTest(context, this::release)) {
+                release();
+            }
+        }
+
+        /**
+         * Finish the row's trace for a test that has already ended and close at once
+         * Used from @AfterMethod, which TestNG runs after the tracing listener.
+         */
+        public void close(ITestResult result) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            TracingListener.finishAndClose(context, result, this::release);
+        }
+
+        private void release() {
+            try {
+                context.close();
+            } finally {
+                rowPermits.release();
+            }
+        }
+    }
+
+    /**
+     * Per-browser context load with browser.instances set, otherwise empty
+     */
+    public static List<BrowserTopology.Load> browserLoad() {
+        BrowserTopology current = topology;
+        return current != null ? current.load() : List.of();
+    }
+
+    /**
+     * Close the pooled browsers launched for worker threads
+     */
+    public static void closeWorkerBrowsers() {
+        if (topology != null) {
+            topology.logLoad();
+            topology.closeConnections();
+        }
+        PooledBrowser pooled;
+        int closed = 0;
+        while ((pooled = pooledBrowsers.poll()) != null) {
+            pooled.playwright.close();
+            closed++;
+        }
+        synchronized (poolLock) {
+            idleBrowsers.clear();
+            pooledCount = 0;
+            poolLock.notifyAll();
+        }
+        if (closed > 0) {
+            log.info("Closed {} pooled worker browser(s).", closed);
+        }
+    }
+
     public static void closeBrowser() {
+        closeWorkerBrowsers();
         if (authenticatedContext != null) {
             authenticatedContext.close();
         }
@@ -0,0 +1,267 @@
+package base;
+
+import com.config.ConfigManager;
+import com.logging.LogHelper;
+import com.microsoft.playwright.CLI;
+import com.microsoft.playwright.impl.driver.Driver;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the browser server endpoint BrowserContextManager connects to instead of
+ * launching a browser itself (config browser.server)
+ *
+ * - off: no server, every Playwright instance launches its own browser
+ * - connect: attach to browser.server.endpoint (ws://...), started elsewhere
+ * - shared: attach to this machine's server for the browser, starting it if needed
+ *
+ * A shared server is the driver's launch-server command in a small JVM of its own, so
+ * it outlives the JVM that started it and every later fork, worker or daemon attaches
+ * to the same browser process. Each connection gets its own contexts, and they are
+ * closed when it disconnects. Its endpoint and pid are kept in
+ * ${java.io.tmpdir}/playwright-browser-server/&lt;version&gt;/, and a file lock makes
+ * concurrent JVMs start only one server. Servers stay up until stopped:
+ *
+ *   java -cp &lt;test classpath&gt; base.BrowserServer stop | status
+ */
+public final class BrowserServer {
+    private static final Logger log = LogHelper.getLogger(BrowserServer.class);
+    private static final long START_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    // Endpoint per server name (browser, headless flag, instance), resolved once per JVM
+    private static final Map<String, String> endpoints = new ConcurrentHashMap<>();
+
+    private BrowserServer() {}
+
+    /**
+     * WebSocket endpoint to connect to, or null when browsers are launched in-process
+     */
+    public static String endpoint(String browserType, boolean headless) {
+        switch (ConfigManager.getBrowserServer()) {
+            case "connect": {
+                String endpoint = ConfigManager.getBrowserServerEndpoint();
+                if (endpoint.isEmpty()) {
+                    throw new IllegalStateException("browser.server=connect needs browser.server.endpoint, e.g. ws://host:port/path");
+                }
+                return endpoint;
+            }
+            case "shared":
+                return endpoints.computeIfAbsent(browserType + (headless ? "" : "-headed"), name -> attachOrStart(name, browserType, headless));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Endpoints of the browsers BrowserTopology spreads contexts over: every entry of a
+     * comma-separated browser.server.endpoint in connect mode, otherwise count shared
+     * local servers (also when browser.server is off)
+     */
+    public static List<String> endpoints(String browserType, boolean headless, int count) {
+        List<String> result = new ArrayList<>();
+        if ("connect".equals(ConfigManager.getBrowserServer())) {
+            for (String endpoint : ConfigManager.getBrowserServerEndpoint().split(",")) {
+                if (!endpoint.isBlank()) {
+                    result.add(endpoint.trim());
+                }
+            }
+            if (result.isEmpty()) {
+                throw new IllegalStateException("browser.server=connect needs browser.server.endpoint, e.g. ws://host:port/path");
+            }
+            return result;
+        }
+        String name = browserType + (headless ? "" : "-headed");
+        for (int i = 1; i <= count; i++) {
+            result.add(endpoints.computeIfAbsent(name + "-" + i, instance -> attachOrStart(instance, browserType, headless)));
+        }
+        return result;
+    }
+
+    /**
+     * Reuse the running server recorded in the state directory, or start one
+     */
+    private static String attachOrStart(String name, String browserType, boolean headless) {
+        Path directory = stateDirectory();
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(directory.resolve(name + ".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    Optional<String> running = runningEndpoint(directory, name);
+                    if (running.isPresent()) {
+                        log.info("Attaching to shared {} server at {}", name, running.get());
+                        return running.get();
+                    }
+                    return start(directory, name, browserType, headless);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start or attach to the " + name + " browser server in " + directory, e);
+        }
+    }
+
+    private static Optional<String> runningEndpoint(Path directory, String name) throws IOException {
+        Path endpointFile = directory.resolve(name + ".endpoint");
+        Path pidFile = directory.resolve(name + ".pid");
+        if (!Files.isRegularFile(endpointFile) || !Files.isRegularFile(pidFile)) {
+            return Optional.empty();
+        }
+        String endpoint = Files.readString(endpointFile).trim();
+        boolean alive = ProcessHandle.of(Long.parseLong(Files.readString(pidFile).trim()))
+            .map(ProcessHandle::isAlive).orElse(false);
+        if (alive && isListening(endpoint)) {
+            return Optional.of(endpoint);
+        }
+        log.info("Recorded {} server {} is gone", name, endpoint);
+        Files.deleteIfExists(endpointFile);
+        Files.deleteIfExists(pidFile);
+        return Optional.empty();
+    }
+
+    private static String start(Path directory, String name, String browserType, boolean headless) throws IOException {
+        Path config = directory.resolve(name + ".json");
+        Files.writeString(config, "{\"headless\": " + headless + "}");
+        Path output = directory.resolve(name + ".log");
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        // The JVM only waits on the driver's Node process; keep its footprint small
+        command.add("-Xmx64m");
+        command.add("-XX:+UseSerialGC");
+        command.add("-cp");
+        command.add(driverClasspath());
+        command.add(CLI.class.getName());
+        command.addAll(List.of("launch-server", "--browser", browserType, "--config", config.toString()));
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(output.toFile())
+            .start();
+
+        // launch-server prints the endpoint once the browser is up
+        long deadline = System.currentTimeMillis() + START_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<String> endpoint = Files.readAllLines(output).stream()
+                .map(String::trim).filter(line -> line.startsWith("ws://")).findFirst();
+            if (endpoint.isPresent()) {
+                Files.writeString(directory.resolve(name + ".pid"), Long.toString(process.pid()));
+                Files.writeString(directory.resolve(name + ".endpoint"), endpoint.get());
+                log.info("Started shared {} server at {} in {} ms (pid {})", name, endpoint.get(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), process.pid());
+                return endpoint.get();
+            }
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Browser server exited with " + process.exitValue() + "; see " + output);
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        destroy(process.toHandle());
+        throw new IllegalStateException("Browser server did not report an endpoint; see " + output);
+    }
+
+    /**
+     * Playwright, driver and driver bundle jars, enough to run the driver CLI
+     */
+    private static String driverClasspath() {
+        Set<String> entries = new LinkedHashSet<>();
+        for (Class<?> type : new Class<?>[] {CLI.class, Driver.class}) {
+            entries.add(location(type));
+        }
+        try {
+            entries.add(location(Class.forName("com.microsoft.playwright.impl.driver.jar.DriverJar")));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Playwright driver-bundle is not on the classpath", e);
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static String location(Class<?> type) {
+        try {
+            return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate " + type.getName(), e);
+        }
+    }
+
+    private static boolean isListening(String endpoint) {
+        try (Socket socket = new Socket()) {
+            URI uri = URI.create(endpoint);
+            socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), 1000);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Per Playwright version, since a client can only connect to a server of its own version
+     */
+    private static Path stateDirectory() {
+        String version = Optional.ofNullable(CLI.class.getPackage().getImplementationVersion())
+            .orElse(Integer.toHexString(location(CLI.class).hashCode()));
+        return Paths.get(System.getProperty("java.io.tmpdir"), "playwright-browser-server", version);
+    }
+
+    private static void destroy(ProcessHandle process) {
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String command = args.length > 0 ? args[0] : "status";
+        Path directory = stateDirectory();
+        List<Path> pidFiles = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.toString().endsWith(".pid")).sorted().forEach(pidFiles::add);
+            }
+        }
+        if (pidFiles.isEmpty()) {
+            log.info("No shared browser servers in {}", directory);
+            return;
+        }
+        for (Path pidFile : pidFiles) {
+            String name = pidFile.getFileName().toString().replace(".pid", "");
+            Optional<ProcessHandle> process = ProcessHandle.of(Long.parseLong(Files.readString(pidFile).trim()));
+            Path endpointFile = directory.resolve(name + ".endpoint");
+            String endpoint = Files.isRegularFile(endpointFile) ? Files.readString(endpointFile).trim() : "?";
+            boolean alive = process.map(ProcessHandle::isAlive).orElse(false);
+            if ("stop".equals(command)) {
+                process.ifPresent(BrowserServer::destroy);
+                Files.deleteIfExists(pidFile);
+                Files.deleteIfExists(endpointFile);
+                log.info("Stopped {} server {}", name, endpoint);
+            } else {
+                log.info("{} server {}: {}", name, endpoint, alive ? "running" : "gone");
+            }
+        }
+    }
+}
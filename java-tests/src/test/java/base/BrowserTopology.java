@@ -0,0 +1,187 @@
+package base;
+
+import com.logging.LogHelper;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * N browser processes hosting up to M contexts each (browser.instances, browser.contexts)
+ *
+ * A single browser serializes much of its work on its own main thread, so at high
+ * parallelism contexts are spread over several browsers. Each new context goes to the
+ * browser with the fewest open contexts; when every browser is full, newContext()
+ * waits for a context to close. The browsers are shared servers (see BrowserServer),
+ * because Playwright objects must stay on the thread that created them: each thread
+ * has its own Playwright and connects it to a browser the first time a context is
+ * placed there.
+ *
+ * Per-browser load (open, peak and total contexts) is logged when the suite's thread
+ * connections are closed, and is available from load().
+ */
+public final class BrowserTopology {
+    private static final Logger log = LogHelper.getLogger(BrowserTopology.class);
+
+    /**
+     * Load of one browser: contexts open now, most open at once, and placed in total
+     */
+    public record Load(String endpoint, int open, int peak, long placed) {}
+
+    private final String browserType;
+    private final List<String> endpoints;
+    private final int contextsPerBrowser;
+    // Guarded by this
+    private final int[] open;
+    private final int[] peak;
+    private final long[] placed;
+
+    private final ThreadLocal<Connections> connections = new ThreadLocal<>();
+    private final Queue<Connections> allConnections = new ConcurrentLinkedQueue<>();
+
+    /**
+     * One thread's Playwright and its connections, one slot per browser
+     */
+    private static final class Connections {
+        final Playwright playwright = Playwright.create();
+        final Browser[] browsers;
+        volatile boolean closed;
+
+        Connections(int size) {
+            browsers = new Browser[size];
+        }
+    }
+
+    private BrowserTopology(String browserType, List<String> endpoints, int contextsPerBrowser) {
+        this.browserType = browserType;
+        this.endpoints = endpoints;
+        this.contextsPerBrowser = contextsPerBrowser;
+        this.open = new int[endpoints.size()];
+        this.peak = new int[endpoints.size()];
+        this.placed = new long[endpoints.size()];
+    }
+
+    /**
+     * Start or attach to the browsers
+     * @param instances Number of browser processes
+     * @param contextsPerBrowser Maximum open contexts per browser, 0 for no limit
+     */
+    static BrowserTopology start(String browserType, boolean headless, int instances, int contextsPerBrowser) {
+        List<String> endpoints = BrowserServer.endpoints(browserType, headless, instances);
+        log.info("Browser topology: {} {} browser(s) x {} context(s)", endpoints.size(), browserType,
+            contextsPerBrowser > 0 ? contextsPerBrowser : "unlimited");
+        return new BrowserTopology(browserType, endpoints, contextsPerBrowser);
+    }
+
+    /**
+     * Open a context on the least-loaded browser, waiting while all are full
+     */
+    public BrowserContext newContext() {
+        int slot = place();
+        try {
+            BrowserContext context = connection(slot).newContext();
+            context.onClose(closed -> release(slot));
+            return context;
+        } catch (RuntimeException e) {
+            release(slot);
+            throw e;
+        }
+    }
+
+    private synchronized int place() {
+        boolean logged = false;
+        while (true) {
+            int best = -1;
+            for (int i = 0; i < open.length; i++) {
+                if ((contextsPerBrowser <= 0 || open[i] < contextsPerBrowser) && (best < 0 || open[i] < open[best])) {
+                    best = i;
+                }
+            }
+            if (best >= 0) {
+                open[best]++;
+                placed[best]++;
+                peak[best] = Math.max(peak[best], open[best]);
+                return best;
+            }
+            if (!logged) {
+                log.info("All {} browser(s) hold {} context(s); waiting for one to close", open.length, contextsPerBrowser);
+                logged = true;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser context slot", e);
+            }
+        }
+    }
+
+    private synchronized void release(int slot) {
+        if (open[slot] > 0) {
+            open[slot]--;
+        }
+        notifyAll();
+    }
+
+    private Browser connection(int slot) {
+        Connections thread = connections.get();
+        if (thread == null || thread.closed) {
+            thread = new Connections(endpoints.size());
+            connections.set(thread);
+            allConnections.add(thread);
+        }
+        Browser[] browsers = thread.browsers;
+        if (browsers[slot] == null || !browsers[slot].isConnected()) {
+            browsers[slot] = BrowserContextManager.browserType(thread.playwright, browserType).connect(endpoints.get(slot));
+            log.info("Thread {} connected to browser {} ({})", Thread.currentThread().getName(), slot + 1, endpoints.get(slot));
+        }
+        return browsers[slot];
+    }
+
+    /**
+     * Current load of every browser
+     */
+    public synchronized List<Load> load() {
+        List<Load> loads = new ArrayList<>();
+        for (int i = 0; i < open.length; i++) {
+            loads.add(new Load(endpoints.get(i), open[i], peak[i], placed[i]));
+        }
+        return loads;
+    }
+
+    void logLoad() {
+        List<Load> loads = load();
+        for (int i = 0; i < loads.size(); i++) {
+            Load load = loads.get(i);
+            log.info("Browser {} ({}): {} context(s) placed, peak {} open, {} open now", i + 1, load.endpoint(), load.placed(),
+                load.peak(), load.open());
+        }
+    }
+
+    /**
+     * Close every thread's connections; the browsers themselves keep running
+     */
+    void closeConnections() {
+        Connections thread;
+        int closed = 0;
+        while ((thread = allConnections.poll()) != null) {
+            thread.closed = true;
+            thread.playwright.close();
+            closed++;
+        }
+        synchronized (this) {
+            // Contexts of closed connections are gone even if their close events never arrived
+            Arrays.fill(open, 0);
+            notifyAll();
+        }
+        if (closed > 0) {
+            log.info("Closed browser connections of {} thread(s)", closed);
+        }
+    }
+}
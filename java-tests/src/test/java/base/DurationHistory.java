@@ -0,0 +1,221 @@
+package base;
+
+import com.logging.LogHelper;
+import org.slf4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-method durations from earlier runs, used to schedule the longest tests first
+ *
+ * The file (-Ddurations.file, default test-history/durations.tsv) holds one line per
+ * test method: qualified name, estimated milliseconds and number of runs seen. A
+ * method's time in a run is the sum of all its invocations (data rows, retries) plus
+ * its @BeforeMethod/@AfterMethod time. Each saved run moves the estimate halfway
+ * towards the new time, so one slow run does not dominate.
+ *
+ * The file is local to the machine and not committed; delete it to start over.
+ *
+ * Worker JVMs of WorkCoordinator never save; the coordinator records their results.
+ *
+ * Shards (-Dshard=i/n) must all read the same file, so a shard leaves it untouched and
+ * saves to durations-shard-&lt;i&gt;.tsv next to it. Combine those after the run with:
+ *   mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=base.DurationHistory
+ *       -Dexec.args="test-history/durations.tsv test-history/durations-shard-1.tsv ..."
+ */
+public final class DurationHistory {
+    private static final Logger log = LogHelper.getLogger(DurationHistory.class);
+    private static final double WEIGHT = 0.5;
+
+    private static volatile DurationHistory shared;
+
+    private final Path saveTo;
+    private final Map<String, Entry> previous;
+    private final Map<String, LongAdder> current = new ConcurrentHashMap<>();
+
+    private record Entry(long millis, int runs) {}
+
+    private DurationHistory(Path saveTo, Map<String, Entry> previous) {
+        this.saveTo = saveTo;
+        this.previous = Collections.unmodifiableMap(previous);
+    }
+
+    /**
+     * History for this JVM, loaded from the durations file on first use
+     */
+    public static DurationHistory shared() {
+        DurationHistory history = shared;
+        if (history == null) {
+            synchronized (DurationHistory.class) {
+                history = shared;
+                if (history == null) {
+                    Path file = Paths.get(System.getProperty("durations.file", "test-history/durations.tsv"));
+                    DurationScheduler.Shard shard = DurationScheduler.Shard.fromSystemProperty();
+                    history = load(file, shard == null ? file : shardFile(file, shard.index()));
+                    shared = history;
+                }
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Load a history file; a missing or unreadable file gives an empty history
+     */
+    public static DurationHistory load(Path file) {
+        return load(file, file);
+    }
+
+    private static DurationHistory load(Path file, Path saveTo) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (Files.isRegularFile(file)) {
+            try {
+                List<String> lines = Files.readAllLines(file);
+                for (String line : lines) {
+                    if (line.isEmpty() || line.charAt(0) == '#') {
+                        continue;
+                    }
+                    String[] fields = line.split("\t");
+                    if (fields.length < 3) {
+                        continue;
+                    }
+                    entries.put(fields[0], new Entry(Long.parseLong(fields[1]), Integer.parseInt(fields[2])));
+                }
+                log.info("Loaded durations for {} test method(s) from {}", entries.size(), file);
+            } catch (IOException | NumberFormatException e) {
+                log.warn("Ignoring unreadable duration history {}: {}", file, e.toString());
+                entries.clear();
+            }
+        }
+        return new DurationHistory(saveTo, entries);
+    }
+
+    /**
+     * Estimated milliseconds for a method from earlier runs, or -1 when it has never run
+     */
+    public long estimate(String qualifiedName) {
+        Entry entry = previous.get(qualifiedName);
+        return entry == null ? -1 : entry.millis();
+    }
+
+    /**
+     * Mean estimate over all known methods, used for methods without history
+     */
+    public long meanEstimate() {
+        if (previous.isEmpty()) {
+            return 0;
+        }
+        long total = 0;
+        for (Entry entry : previous.values()) {
+            total += entry.millis();
+        }
+        return total / previous.size();
+    }
+
+    public boolean isEmpty() {
+        return previous.isEmpty();
+    }
+
+    /**
+     * Add time spent on a method in this run
+     */
+    public void record(String qualifiedName, long millis) {
+        if (millis > 0) {
+            current.computeIfAbsent(qualifiedName, k -> new LongAdder()).add(millis);
+        }
+    }
+
+    /**
+     * Write earlier estimates merged with this run's times
+     * Safe to call more than once per run; each call merges into the loaded history.
+     */
+    public synchronized void save() {
+        if (current.isEmpty() || WorkerRunner.isActive()) {
+            return;
+        }
+        Map<String, Entry> merged = new TreeMap<>(previous);
+        current.forEach((name, adder) -> {
+            long millis = adder.sum();
+            Entry old = merged.get(name);
+            merged.put(name, old == null
+                ? new Entry(millis, 1)
+                : new Entry(Math.round(old.millis() * (1 - WEIGHT) + millis * WEIGHT), old.runs() + 1));
+        });
+
+        try {
+            write(saveTo, merged);
+            log.info("Saved durations for {} test method(s) to {}", merged.size(), saveTo);
+        } catch (IOException e) {
+            log.error("Failed to save duration history {}", saveTo, e);
+        }
+    }
+
+    /**
+     * Combine the files written by the shards of one run
+     * Every shard starts from the same history and updates only the methods it ran, so
+     * for each method the entry with the most runs is the current one.
+     */
+    public static void merge(Path target, List<Path> shardFiles) throws IOException {
+        Map<String, Entry> merged = new TreeMap<>();
+        for (Path shardFile : shardFiles) {
+            load(shardFile).previous.forEach((name, entry) -> merged.merge(name, entry,
+                (a, b) -> b.runs() > a.runs() ? b : a));
+        }
+        write(target, merged);
+        log.info("Merged {} shard file(s) into {} ({} test method(s))", shardFiles.size(), target, merged.size());
+    }
+
+    /**
+     * File a shard saves to, e.g. durations-shard-2.tsv next to durations.tsv
+     */
+    static Path shardFile(Path file, int shardIndex) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String shardName = dot > 0
+            ? name.substring(0, dot) + "-shard-" + shardIndex + name.substring(dot)
+            : name + "-shard-" + shardIndex;
+        return file.resolveSibling(shardName);
+    }
+
+    private static void write(Path target, Map<String, Entry> entries) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "durations", ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+            writer.write("# method\tmillis\truns");
+            writer.newLine();
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                writer.write(e.getKey() + "\t" + e.getValue().millis() + "\t" + e.getValue().runs());
+                writer.newLine();
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Usage: DurationHistory &lt;target&gt; &lt;shard file&gt;...
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: DurationHistory <target> <shard file>...");
+        }
+        List<Path> shardFiles = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            shardFiles.add(Paths.get(args[i]));
+        }
+        merge(Paths.get(args[0]), shardFiles);
+    }
+}
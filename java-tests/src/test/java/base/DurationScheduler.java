@@ -0,0 +1,192 @@
+package base;
+
+import com.logging.LogHelper;
+import org.slf4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Orders test methods longest-processing-time first from DurationHistory, and with
+ * -Dshard=i/n keeps only the methods of one shard
+ *
+ * With -Dimpact.base=&lt;git ref&gt; only methods of test classes affected by changes since
+ * that ref are kept (see ImpactAnalysis), before sharding and ordering.
+ *
+ * TestNG hands free methods to idle worker threads in the order returned here, so
+ * sorting by descending expected duration is LPT list scheduling: the longest tests
+ * start first and the short ones fill the gaps at the end, instead of a slow class
+ * listed last in testng.xml stretching the tail of the run. Methods without history
+ * are assumed to take the mean of the known ones. Explicit @Test(priority) still wins:
+ * methods are sorted by priority first and by duration within a priority.
+ *
+ * Sharding splits each &lt;test&gt; into n buckets of near-equal expected time (longest
+ * method to the lightest bucket, ties broken by name and bucket number). Every shard
+ * computes the same split from the same history file, so the shards together run each
+ * method exactly once. Shards are numbered from 1.
+ *
+ * Disable ordering with -Dschedule.lpt=false to keep testng.xml order.
+ */
+public class DurationScheduler implements IMethodInterceptor {
+    private static final Logger log = LogHelper.getLogger(DurationScheduler.class);
+
+    private record Planned(IMethodInstance instance, String name, int position, long millis, boolean known) {}
+
+    /**
+     * Shard index (1-based) and count from -Dshard=i/n
+     */
+    record Shard(int index, int count) {
+        static Shard fromSystemProperty() {
+            String spec = System.getProperty("shard", "").trim();
+            return spec.isEmpty() ? null : parse(spec);
+        }
+
+        static Shard parse(String spec) {
+            int slash = spec.indexOf('/');
+            try {
+                if (slash > 0) {
+                    Shard shard = new Shard(Integer.parseInt(spec.substring(0, slash).trim()),
+                        Integer.parseInt(spec.substring(slash + 1).trim()));
+                    if (shard.count() >= 1 && shard.index() >= 1 && shard.index() <= shard.count()) {
+                        return shard;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // fall through to the error below
+            }
+            throw new IllegalArgumentException("shard must be i/n with 1 <= i <= n, e.g. -Dshard=2/4; got: " + spec);
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        boolean lpt = Boolean.parseBoolean(System.getProperty("schedule.lpt", "true"));
+        Shard shard = Shard.fromSystemProperty();
+        ImpactAnalysis.Selection impact = ImpactAnalysis.fromSystemProperty();
+        if (impact != null && !impact.fullRun()) {
+            methods = selectImpacted(methods, impact, context.getName());
+        }
+        if (shard == null && (!lpt || methods.size() < 2)) {
+            return methods;
+        }
+        DurationHistory history = DurationHistory.shared();
+        if (shard == null && history.isEmpty()) {
+            log.info("No duration history yet; keeping testng.xml order for '{}'", context.getName());
+            return methods;
+        }
+
+        // Unknown methods must still weigh something, or an empty history would put every method in one shard
+        long fallback = Math.max(1, history.meanEstimate());
+        List<Planned> planned = new ArrayList<>(methods.size());
+        for (IMethodInstance instance : methods) {
+            String name = instance.getMethod().getQualifiedName();
+            long millis = history.estimate(name);
+            planned.add(new Planned(instance, name, planned.size(), millis < 0 ? fallback : millis, millis >= 0));
+        }
+
+        if (shard != null) {
+            planned = selectShard(planned, shard, context.getName());
+        }
+        if (lpt) {
+            int threads = threads(context.getCurrentXmlTest());
+            List<Planned> original = planned;
+            planned = new ArrayList<>(planned);
+            planned.sort(Comparator.comparingInt((Planned p) -> p.instance().getMethod().getPriority())
+                .thenComparing(Comparator.comparingLong(Planned::millis).reversed()));
+            long unknown = planned.stream().filter(p -> !p.known()).count();
+            log.info("LPT order for '{}': {} method(s) on {} thread(s), {} without history; expected makespan {} ms (testng.xml order {} ms)",
+                context.getName(), planned.size(), threads, unknown, makespan(planned, threads), makespan(original, threads));
+        }
+
+        List<IMethodInstance> ordered = new ArrayList<>(planned.size());
+        for (Planned p : planned) {
+            ordered.add(p.instance());
+        }
+        return ordered;
+    }
+
+    /**
+     * Keep the methods whose class depends on something changed since the impact base
+     */
+    private static List<IMethodInstance> selectImpacted(List<IMethodInstance> methods, ImpactAnalysis.Selection impact,
+                                                        String testName) {
+        ImpactAnalysis analysis = ImpactAnalysis.shared();
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            if (analysis.isImpacted(instance.getMethod().getRealClass().getName(), impact)) {
+                selected.add(instance);
+            }
+        }
+        log.info("Impact selection for '{}': {} of {} method(s) affected by changes since {}", testName, selected.size(),
+            methods.size(), impact.base());
+        return selected;
+    }
+
+    /**
+     * Keep the methods that fall into this shard, in their original order
+     */
+    private static List<Planned> selectShard(List<Planned> planned, Shard shard, String testName) {
+        // Placement must not depend on anything but names and history
+        List<Planned> byCost = new ArrayList<>(planned);
+        byCost.sort(Comparator.comparingLong(Planned::millis).reversed()
+            .thenComparing(Planned::name)
+            .thenComparingInt(Planned::position));
+
+        long[] load = new long[shard.count()];
+        boolean[] mine = new boolean[planned.size()];
+        for (Planned p : byCost) {
+            int bucket = 0;
+            for (int b = 1; b < load.length; b++) {
+                if (load[b] < load[bucket]) {
+                    bucket = b;
+                }
+            }
+            load[bucket] += p.millis();
+            mine[p.position()] = bucket == shard.index() - 1;
+        }
+
+        List<Planned> selected = new ArrayList<>();
+        for (Planned p : planned) {
+            if (mine[p.position()]) {
+                selected.add(p);
+            }
+        }
+        long total = 0;
+        long max = 0;
+        for (long l : load) {
+            total += l;
+            max = Math.max(max, l);
+        }
+        log.info("Shard {}/{} of '{}': {} of {} method(s), expected {} ms of {} ms total (largest shard {} ms)",
+            shard.index(), shard.count(), testName, selected.size(), planned.size(),
+            load[shard.index() - 1], total, max);
+        return selected;
+    }
+
+    private static int threads(XmlTest test) {
+        return test.getParallel().isParallel() ? Math.max(1, test.getThreadCount()) : 1;
+    }
+
+    /**
+     * Finish time of the last thread when each method goes to the thread that is free first
+     */
+    private static long makespan(List<Planned> order, int threads) {
+        PriorityQueue<Long> finish = new PriorityQueue<>(threads);
+        for (int i = 0; i < threads; i++) {
+            finish.add(0L);
+        }
+        long end = 0;
+        for (Planned p : order) {
+            long done = finish.poll() + p.millis();
+            finish.add(done);
+            end = Math.max(end, done);
+        }
+        return end;
+    }
+}
@@ -0,0 +1,407 @@
+package base;
+
+import com.logging.LogHelper;
+import com.pages.BasePage;
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Maps test classes to the project classes and test data files they use, and selects
+ * the tests affected by a git diff
+ *
+ * The map is read from the compiled classes: every class file's constant pool names the
+ * classes it refers to and holds its string literals and annotation values, which is
+ * where test data file names such as "users.json" appear. Dependencies are followed
+ * transitively (test -> page object -> BasePage -> utils). Nested classes count as their
+ * source file. A data file named after a test method (e.g. testLogin.csv, the default
+ * of MappedCsvDataProvider) counts as used by that method's class.
+ *
+ * Selection compares the working tree with a git ref (-Dimpact.base=origin/main).
+ * Changes to build files, suite XML, config resources, base/ (listeners are loaded by
+ * name, not referenced) or anything that cannot be mapped to a class or data file
+ * select every test; changes outside src/ and pom.xml (docs, other projects) are ignored.
+ *
+ * Print the map and the selection: base.ImpactAnalysis [git ref]
+ * (mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=base.ImpactAnalysis -Dexec.args=origin/main)
+ */
+public final class ImpactAnalysis {
+    private static final Logger log = LogHelper.getLogger(ImpactAnalysis.class);
+    private static final Path DATA_DIR = Paths.get("src/test/resources/testdata");
+    private static final Path MAP_FILE = Paths.get("target/impact/dependencies.tsv");
+
+    private static volatile ImpactAnalysis shared;
+    private static volatile Selection selected;
+
+    // Source class (dotted, no nested suffix) -> directly referenced project classes and data files
+    private final Map<String, Set<String>> classes = new TreeMap<>();
+    private final Map<String, Set<String>> data = new TreeMap<>();
+    private final Map<String, Set<String>> closures = new HashMap<>();
+
+    /**
+     * Files changed since a git ref, and what they mean for test selection
+     */
+    public record Selection(String base, boolean fullRun, String reason, Set<String> classes, Set<String> dataFiles) {}
+
+    private ImpactAnalysis() {}
+
+    /**
+     * Map built from the compiled main and test classes, cached for the JVM
+     */
+    public static ImpactAnalysis shared() {
+        ImpactAnalysis analysis = shared;
+        if (analysis == null) {
+            synchronized (ImpactAnalysis.class) {
+                analysis = shared;
+                if (analysis == null) {
+                    analysis = build(List.of(classDirectory(BasePage.class), classDirectory(BaseTest.class)), DATA_DIR);
+                    shared = analysis;
+                }
+            }
+        }
+        return analysis;
+    }
+
+    static ImpactAnalysis build(List<Path> classDirectories, Path dataDirectory) {
+        long start = System.nanoTime();
+        Set<String> dataFiles = new HashSet<>();
+        if (Files.isDirectory(dataDirectory)) {
+            try (Stream<Path> files = Files.walk(dataDirectory)) {
+                files.filter(Files::isRegularFile).forEach(file -> dataFiles.add(file.getFileName().toString()));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to list test data in " + dataDirectory, e);
+            }
+        }
+
+        ImpactAnalysis analysis = new ImpactAnalysis();
+        Map<String, Set<String>> rawReferences = new HashMap<>();
+        for (Path directory : classDirectories) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".class"))::iterator) {
+                    String name = sourceClass(directory.relativize(file).toString().replace('\\', '/'));
+                    Set<String> strings = new HashSet<>();
+                    Set<String> references = rawReferences.computeIfAbsent(name, k -> new HashSet<>());
+                    readConstantPool(file, references, strings);
+                    Set<String> usedData = analysis.data.computeIfAbsent(name, k -> new TreeSet<>());
+                    for (String string : strings) {
+                        for (String dataFile : dataFiles) {
+                            if (string.equals(dataFile) || string.endsWith("/" + dataFile)) {
+                                usedData.add(dataFile);
+                            }
+                        }
+                    }
+                    for (String method : methodNames(strings)) {
+                        for (String dataFile : dataFiles) {
+                            if (dataFile.startsWith(method + ".")) {
+                                usedData.add(dataFile);
+                            }
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read classes in " + directory, e);
+            }
+        }
+        // Keep only references to classes of this project
+        rawReferences.forEach((name, references) -> {
+            Set<String> project = new TreeSet<>();
+            for (String reference : references) {
+                String referenced = sourceClass(reference + ".class");
+                if (!referenced.equals(name) && rawReferences.containsKey(referenced)) {
+                    project.add(referenced);
+                }
+            }
+            analysis.classes.put(name, project);
+        });
+        log.info("Impact map: {} class(es), {} test data file(s) in {} ms", analysis.classes.size(), dataFiles.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return analysis;
+    }
+
+    /**
+     * Classes and data files a class depends on, directly or transitively (including itself)
+     */
+    public synchronized Set<String> dependencies(String className) {
+        Set<String> closure = closures.get(className);
+        if (closure != null) {
+            return closure;
+        }
+        closure = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(className);
+        while (!pending.isEmpty()) {
+            String next = pending.poll();
+            if (closure.add(next)) {
+                pending.addAll(classes.getOrDefault(next, Set.of()));
+                for (String dataFile : data.getOrDefault(next, Set.of())) {
+                    closure.add("data:" + dataFile);
+                }
+            }
+        }
+        closures.put(className, closure);
+        return closure;
+    }
+
+    /**
+     * Selection for -Dimpact.base, computed once per JVM; null when the property is unset
+     */
+    public static Selection fromSystemProperty() {
+        String base = System.getProperty("impact.base", "").trim();
+        if (base.isEmpty()) {
+            return null;
+        }
+        Selection selection = selected;
+        if (selection == null) {
+            synchronized (ImpactAnalysis.class) {
+                selection = selected;
+                if (selection == null) {
+                    selection = shared().select(base);
+                    log.info("Impact selection against {}: {}{}", base, selection.reason(),
+                        selection.fullRun() ? " -> running all tests" : "; classes " + selection.classes() + ", data " + selection.dataFiles());
+                    selected = selection;
+                }
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Whether a test class is affected by the selected changes
+     */
+    public boolean isImpacted(String testClass, Selection selection) {
+        if (selection.fullRun()) {
+            return true;
+        }
+        Set<String> closure = dependencies(testClass);
+        for (String changed : selection.classes()) {
+            if (closure.contains(changed)) {
+                return true;
+            }
+        }
+        for (String dataFile : selection.dataFiles()) {
+            if (closure.contains("data:" + dataFile)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Classify the files changed between a git ref and the working tree
+     */
+    public Selection select(String base) {
+        List<String> changed;
+        try {
+            changed = git("diff", "--name-only", "--relative", base);
+            changed.addAll(git("ls-files", "--others", "--exclude-standard"));
+        } catch (IOException e) {
+            return new Selection(base, true, "git diff failed: " + e.getMessage(), Set.of(), Set.of());
+        }
+
+        Set<String> changedClasses = new TreeSet<>();
+        Set<String> changedData = new TreeSet<>();
+        for (String path : changed) {
+            String reason = classify(path, changedClasses, changedData);
+            if (reason != null) {
+                return new Selection(base, true, reason, changedClasses, changedData);
+            }
+        }
+        return new Selection(base, false, changed.size() + " changed file(s)", changedClasses, changedData);
+    }
+
+    /**
+     * Record what a changed file affects
+     * @return why it forces a full run, or null
+     */
+    private String classify(String path, Set<String> changedClasses, Set<String> changedData) {
+        if (path.equals("pom.xml")) {
+            return "build file changed: " + path;
+        }
+        if (!path.startsWith("src/")) {
+            return null;
+        }
+        if (path.startsWith("src/test/java/base/")) {
+            return "shared test infrastructure changed: " + path;
+        }
+        for (String root : new String[] {"src/main/java/", "src/test/java/"}) {
+            if (path.startsWith(root) && path.endsWith(".java")) {
+                String className = path.substring(root.length(), path.length() - ".java".length()).replace('/', '.');
+                if (!classes.containsKey(className) && root.startsWith("src/main") && Files.exists(Paths.get(path))) {
+                    return "class not compiled yet: " + path;
+                }
+                changedClasses.add(className);
+                return null;
+            }
+        }
+        if (path.startsWith(DATA_DIR.toString().replace('\\', '/') + "/")) {
+            changedData.add(Paths.get(path).getFileName().toString());
+            return null;
+        }
+        return "shared resource changed: " + path;
+    }
+
+    private static List<String> git(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<String> lines = new ArrayList<>();
+        try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    lines.add(line.trim());
+                }
+            }
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException(String.join(" ", command) + ": " + String.join(" ", lines));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git", e);
+        }
+        return lines;
+    }
+
+    /**
+     * Source-level class for a class file path, e.g. com/pages/LoginPage$1.class -> com.pages.LoginPage
+     */
+    private static String sourceClass(String classFile) {
+        String name = classFile.substring(0, classFile.length() - ".class".length());
+        int nested = name.indexOf('$');
+        return (nested < 0 ? name : name.substring(0, nested)).replace('/', '.');
+    }
+
+    private static Path classDirectory(Class<?> type) {
+        try {
+            return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new RuntimeException("Cannot locate classes of " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Collect class references (internal names, also from descriptors) and UTF-8 constants
+     */
+    private static void readConstantPool(Path file, Set<String> references, Set<String> strings) throws IOException {
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw))) {
+            if (in.readInt() != 0xCAFEBABE) {
+                return;
+            }
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+            int count = in.readUnsignedShort();
+            for (int i = 1; i < count; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1 -> {
+                        String value = in.readUTF();
+                        strings.add(value);
+                        addDescriptorTypes(value, references);
+                    }
+                    case 7, 8, 16, 19, 20 -> in.readUnsignedShort();
+                    case 3, 4, 9, 10, 11, 12, 17, 18 -> in.readInt();
+                    case 5, 6 -> {
+                        in.readLong();
+                        i++;
+                    }
+                    case 15 -> {
+                        in.readUnsignedByte();
+                        in.readUnsignedShort();
+                    }
+                    default -> throw new IOException("Unknown constant pool tag " + tag + " in " + file);
+                }
+            }
+        }
+        // Class entries point at UTF-8 entries holding internal names (or array descriptors)
+        for (String string : strings) {
+            if (string.indexOf('/') > 0 && string.indexOf(';') < 0 && string.indexOf(' ') < 0 && string.indexOf('(') < 0) {
+                references.add(string.startsWith("[") ? string.replaceAll("^\\[+L?", "") : string);
+            }
+        }
+    }
+
+    private static void addDescriptorTypes(String value, Set<String> references) {
+        int start = value.indexOf('L');
+        while (start >= 0) {
+            int end = value.indexOf(';', start);
+            if (end < 0) {
+                return;
+            }
+            String candidate = value.substring(start + 1, end);
+            if (candidate.indexOf('/') > 0 && candidate.indexOf(' ') < 0) {
+                references.add(candidate.replaceAll("<.*", ""));
+            }
+            start = value.indexOf('L', end);
+        }
+    }
+
+    /**
+     * Names that could be methods of the class, used to match data files named after tests
+     */
+    private static Set<String> methodNames(Set<String> strings) {
+        Set<String> names = new HashSet<>();
+        for (String string : strings) {
+            if (string.startsWith("test") && string.chars().allMatch(Character::isJavaIdentifierPart)) {
+                names.add(string);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Write the map to target/impact/dependencies.tsv: class, then its transitive dependencies
+     */
+    public void writeMap() throws IOException {
+        Files.createDirectories(MAP_FILE.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(MAP_FILE)) {
+            for (String name : classes.keySet()) {
+                writer.write(name + "\t" + String.join(",", dependencies(name)));
+                writer.newLine();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ImpactAnalysis analysis = shared();
+        analysis.writeMap();
+        log.info("Dependency map written to {}", MAP_FILE);
+        if (args.length == 0) {
+            return;
+        }
+        Selection selection = analysis.select(args[0]);
+        log.info("Changes since {}: {}{}", selection.base(), selection.reason(), selection.fullRun() ? " -> full run" : "");
+        for (String name : analysis.classes.keySet()) {
+            if (name.startsWith("tests.") && analysis.isImpacted(name, selection)) {
+                log.info("  impacted: {}", name);
+            }
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package base;
 
+import org.testng.IConfigurationListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
 import org.testng.ITestResult;
+import com.utils.DataGeneratorUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class LoggingListener implements ITestListener {
+import java.util.Arrays;
+
+/**
+ * Logs test progress and records each method's duration in DurationHistory
+ * A method's duration includes its @BeforeMethod/@AfterMethod time, since that is
+ * what a worker thread spends on it.
+ */
+public class LoggingListener implements ITestListener, IConfigurationListener {
     private static final Logger log = LoggerFactory.getLogger(LoggingListener.class);
 
     @Override
@@ -17,26 +27,58 @@ public class LoggingListener implements ITestListener {
     @Override
     public void onFinish(ITestContext context) {
         log.info("SUITE FINISH: {}", context.getName());
+        DurationHistory.shared().save();
     }
 
     @Override
     public void onTestStart(ITestResult result) {
         log.info("TEST START: {}", result.getMethod().getMethodName());
+        // Same run seed + same test (and row) => same generated data, on any thread
+        DataGeneratorUtils.seedForTest(result.getMethod().getQualifiedName() + Arrays.toString(result.getParameters()));
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
         log.info("TEST PASS: {} ({} ms)", result.getMethod().getMethodName(), duration(result));
+        record(result, result.getMethod());
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
         log.error("TEST FAIL: {}", result.getMethod().getMethodName(), result.getThrowable());
+        record(result, result.getMethod());
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
         log.warn("TEST SKIP: {}", result.getMethod().getMethodName());
+        record(result, result.getMethod());
+    }
+
+    @Override
+    public void onConfigurationSuccess(ITestResult result, ITestNGMethod testMethod) {
+        recordConfiguration(result, testMethod);
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result, ITestNGMethod testMethod) {
+        recordConfiguration(result, testMethod);
+    }
+
+    private void recordConfiguration(ITestResult result, ITestNGMethod testMethod) {
+        ITestNGMethod configuration = result.getMethod();
+        if (configuration.isBeforeMethodConfiguration() || configuration.isAfterMethodConfiguration()) {
+            record(result, testMethod);
+        }
+    }
+
+    /**
+     * Charge a test or per-method configuration run to its test method
+     */
+    private void record(ITestResult result, ITestNGMethod testMethod) {
+        if (testMethod != null && result.getEndMillis() > 0) {
+            DurationHistory.shared().record(testMethod.getQualifiedName(), duration(result));
+        }
     }
 
     private long duration(ITestResult r) {
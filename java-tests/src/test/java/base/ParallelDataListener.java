@@ -0,0 +1,32 @@
+package base;
+
+import com.config.ConfigManager;
+import com.logging.LogHelper;
+import org.slf4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Sizes TestNG's data-provider thread pool from the parallel.rows setting,
+ * so parallel providers run as many rows at once as BrowserContextManager allows,
+ * and the suite's thread-count from parallel.methods when the suite runs in parallel
+ */
+public class ParallelDataListener implements IAlterSuiteListener {
+    private static final Logger log = LogHelper.getLogger(ParallelDataListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = ConfigManager.getParallelRows();
+        int methods = ConfigManager.getParallelMethods();
+        for (XmlSuite suite : suites) {
+            suite.setDataProviderThreadCount(threads);
+            log.info("Suite '{}' data-provider-thread-count set to {}", suite.getName(), threads);
+            if (suite.getParallel() != XmlSuite.ParallelMode.NONE) {
+                suite.setThreadCount(methods);
+                log.info("Suite '{}' parallel={} thread-count set to {}", suite.getName(), suite.getParallel(), methods);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package base;
+
+import com.config.ConfigManager;
+import com.logging.LogHelper;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.TimeoutError;
+import org.slf4j.Logger;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.util.List;
+
+/**
+ * Retries test failures that look like flakiness rather than a broken feature
+ *
+ * Retryable: Playwright timeouts, elements detached from the DOM, contexts or pages
+ * closed underneath the test, navigation interrupted by a new document, and network
+ * errors. Assertion failures and anything else fail at once.
+ *
+ * In a parallel suite the retry does not start inline: the failing thread closes its
+ * context, waits until the rest of the suite has finished, then all waiting retries run
+ * together, each on a fresh context from BaseTest. RetryListener attaches this analyzer to every test and
+ * keeps the statistics.
+ *
+ * Config key retry.max (e.g. -Dretry.max=2) sets the attempts after the first run
+ * (default 1, 0 disables retries).
+ */
+public class RetryAnalyzer implements IRetryAnalyzer {
+    private static final Logger log = LogHelper.getLogger(RetryAnalyzer.class);
+    private static final List<String> RETRYABLE_MESSAGES = List.of(
+        "element is not attached",
+        "detached",
+        "target page, context or browser has been closed",
+        "target closed",
+        "execution context was destroyed",
+        "navigation interrupted",
+        "net::err_");
+
+    @Override
+    public boolean retry(ITestResult result) {
+        Throwable failure = result.getThrowable();
+        if (!isRetryable(failure)) {
+            return false;
+        }
+        int maxRetries = ConfigManager.getRetryMax();
+        int attempt = RetryListener.recordRetry(result);
+        if (attempt > maxRetries) {
+            return false;
+        }
+        log.warn("Retryable failure in {} (retry {}/{}): {}", result.getMethod().getQualifiedName(), attempt, maxRetries,
+            firstLine(failure));
+        RetryListener.awaitRetryBatch(result);
+        return true;
+    }
+
+    /**
+     * Whether a failure, or anything in its cause chain, is a known flaky symptom
+     */
+    public static boolean isRetryable(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutError) {
+                return true;
+            }
+            if (t instanceof PlaywrightException && t.getMessage() != null) {
+                String message = t.getMessage().toLowerCase();
+                for (String retryable : RETRYABLE_MESSAGES) {
+                    if (message.contains(retryable)) {
+                        return true;
+                    }
+                }
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static String firstLine(Throwable failure) {
+        String message = String.valueOf(failure.getMessage());
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+}
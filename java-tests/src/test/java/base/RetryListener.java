@@ -0,0 +1,239 @@
+package base;
+
+import com.config.ConfigManager;
+import com.logging.LogHelper;
+import org.slf4j.Logger;
+import org.testng.IAnnotationTransformer;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+import org.testng.xml.XmlTest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Attaches RetryAnalyzer to every test, holds deferred retries until the suite is
+ * otherwise idle, and keeps per-method flakiness statistics
+ *
+ * A retry waits until no test or configuration method has been running for a second,
+ * then every waiting retry is released at once and they run in parallel. The failed
+ * attempt's context (and row permit) is closed before it waits, so waiting never blocks
+ * another test's @BeforeMethod. A waiting retry holds its worker thread, so at most half
+ * of the suite's threads wait; further retries run inline. If no invocation starts or
+ * finishes for STALL_MILLIS while retries wait, the remaining threads are all waiting on
+ * something or running long tests, and the batch is released anyway, so retries never
+ * stall the suite.
+ *
+ * Statistics (config key retry.stats, default test-history/flaky.tsv) count, per method,
+ * the runs, the runs that passed only after a retry and the runs that failed in the end.
+ * Methods that needed a retry in at least a fifth of five or more runs are reported at suite end
+ * as chronic flakes.
+ */
+public class RetryListener implements IAnnotationTransformer, IInvokedMethodListener, ITestListener, ISuiteListener {
+    private static final Logger log = LogHelper.getLogger(RetryListener.class);
+    private static final long SETTLE_MILLIS = 1000;
+    private static final long STALL_MILLIS = 30_000;
+    private static final double CHRONIC_RATE = 0.2;
+    private static final int CHRONIC_MIN_RUNS = 5;
+
+    // Retries used so far by each test invocation (method + parameters)
+    private static final Map<String, Integer> retries = new ConcurrentHashMap<>();
+    // This run's counts per method: runs, passed after retry, failed
+    private static final Map<String, int[]> counts = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger running = new AtomicInteger();
+    private static final Object batchLock = new Object();
+    private static volatile long lastActivity = System.currentTimeMillis();
+    private static long batch;
+    private static int waiting;
+
+    // IAnnotationTransformer declares raw Class and Constructor, so an override cannot add <?>
+    @SuppressWarnings("rawtypes")
+    @Override
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (annotation.getRetryAnalyzerClass() == null
+                || annotation.getRetryAnalyzerClass() == DisabledRetryAnalyzer.class) {
+            annotation.setRetryAnalyzer(RetryAnalyzer.class);
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        running.incrementAndGet();
+        lastActivity = System.currentTimeMillis();
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        running.decrementAndGet();
+        lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * Count a retry for this invocation
+     * @return the retry number, starting at 1
+     */
+    static int recordRetry(ITestResult result) {
+        return retries.merge(key(result), 1, Integer::sum);
+    }
+
+    /**
+     * Block until the rest of a parallel suite is idle; returns at once in serial suites
+     * and when half of the worker threads are already waiting
+     */
+    static void awaitRetryBatch(ITestResult result) {
+        XmlTest test = result.getTestContext().getCurrentXmlTest();
+        if (!test.getParallel().isParallel()) {
+            return;
+        }
+        long myBatch;
+        synchronized (batchLock) {
+            if (waiting >= Math.max(1, test.getThreadCount() / 2)) {
+                return;
+            }
+            myBatch = batch;
+            waiting++;
+        }
+        try {
+            // The retry gets a fresh fixture from BaseTest; hand this one back before waiting
+            BaseTest.releaseFixture(result);
+            synchronized (batchLock) {
+                while (batch == myBatch) {
+                    long quiet = System.currentTimeMillis() - lastActivity;
+                    if ((running.get() == 0 && quiet >= SETTLE_MILLIS) || quiet >= STALL_MILLIS) {
+                        batch++;
+                        if (running.get() == 0) {
+                            log.info("Suite idle; releasing deferred retries");
+                        } else {
+                            log.info("No test started or finished for {} s; releasing deferred retries", quiet / 1000);
+                        }
+                        batchLock.notifyAll();
+                        break;
+                    }
+                    batchLock.wait(100);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (batchLock) {
+                waiting--;
+            }
+        }
+        lastActivity = System.currentTimeMillis();
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        count(result, retries.remove(key(result)) != null ? 1 : -1);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        retries.remove(key(result));
+        count(result, 2);
+    }
+
+    private static void count(ITestResult result, int column) {
+        int[] methodCounts = counts.computeIfAbsent(result.getMethod().getQualifiedName(), k -> new int[3]);
+        synchronized (methodCounts) {
+            methodCounts[0]++;
+            if (column > 0) {
+                methodCounts[column]++;
+            }
+        }
+    }
+
+    private static String key(ITestResult result) {
+        return result.getMethod().getQualifiedName() + Arrays.toString(result.getParameters());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        int flaky = 0;
+        for (int[] methodCounts : counts.values()) {
+            flaky += methodCounts[1];
+        }
+        log.info("Retries: {} test run(s) passed only after a retry", flaky);
+        if (WorkerRunner.isActive() || TestDaemon.isActive()) {
+            // Workers run one method per suite, and daemon runs re-run tests while they are being edited
+            counts.clear();
+            return;
+        }
+
+        Path file = Paths.get(ConfigManager.getRetryStats());
+        Map<String, int[]> merged = load(file);
+        counts.forEach((name, methodCounts) -> {
+            int[] total = merged.computeIfAbsent(name, k -> new int[3]);
+            for (int i = 0; i < 3; i++) {
+                total[i] += methodCounts[i];
+            }
+        });
+        counts.clear();
+
+        merged.forEach((name, total) -> {
+            if (total[0] >= CHRONIC_MIN_RUNS && total[1] >= total[0] * CHRONIC_RATE) {
+                log.warn("Chronic flake: {} needed a retry in {} of {} run(s)", name, total[1], total[0]);
+            }
+        });
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "flaky", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+                writer.write("# method\truns\tpassed_after_retry\tfailed");
+                writer.newLine();
+                for (Map.Entry<String, int[]> e : merged.entrySet()) {
+                    int[] total = e.getValue();
+                    writer.write(e.getKey() + "\t" + total[0] + "\t" + total[1] + "\t" + total[2]);
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to save retry statistics {}", file, e);
+        }
+    }
+
+    private static Map<String, int[]> load(Path file) {
+        Map<String, int[]> entries = new TreeMap<>();
+        if (!Files.isRegularFile(file)) {
+            return entries;
+        }
+        try {
+            for (String line : Files.readAllLines(file)) {
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length >= 4) {
+                    entries.put(fields[0], new int[] {
+                        Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), Integer.parseInt(fields[3])});
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable retry statistics {}: {}", file, e.toString());
+            entries.clear();
+        }
+        return entries;
+    }
+}
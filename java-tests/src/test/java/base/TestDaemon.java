@@ -0,0 +1,400 @@
+package base;
+
+import com.logging.LogHelper;
+import com.pages.BasePage;
+import com.utils.ArtifactSink;
+import com.utils.ScreenshotUtils;
+import org.slf4j.Logger;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resident test JVM: keeps Playwright and the browser up and runs tests on request
+ *
+ * TestDaemonClient sends "run tests.LoginTest#testLogin tests.RegisterTest" over a
+ * local socket (127.0.0.1, -Ddaemon.port, default 8718) and gets one line per result
+ * back as the tests finish. Runs are queued and executed one at a time on a single
+ * daemon thread, which owns the browser (Playwright objects are bound to the thread
+ * that created them), so suites run with parallel="none" here.
+ *
+ * Every run loads test classes and page objects (-Ddaemon.reload, default
+ * "tests.,com.pages.") through a fresh class loader from target/classes and
+ * target/test-classes, so recompiling is enough to pick up an edit. Infrastructure in
+ * base, config and utils is loaded once and keeps its state between runs.
+ *
+ * Start: mvn test-compile exec:exec -Pdaemon (or java -cp &lt;test classpath&gt; base.TestDaemon [suite.xml])
+ */
+public final class TestDaemon {
+    private static final Logger log = LogHelper.getLogger(TestDaemon.class);
+    static final int DEFAULT_PORT = 8718;
+
+    private static volatile boolean active;
+
+    private final XmlSuite template;
+    private final List<Path> classDirectories;
+    private final List<String> reloadPackages;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "test-daemon"));
+    private final AtomicInteger runs = new AtomicInteger();
+    private final long startedAt = System.currentTimeMillis();
+    private volatile boolean stopping;
+
+    private TestDaemon(XmlSuite template, List<Path> classDirectories, List<String> reloadPackages) {
+        this.template = template;
+        this.classDirectories = classDirectories;
+        this.reloadPackages = reloadPackages;
+    }
+
+    /**
+     * True inside the daemon JVM, where suite-level teardown leaves the browser running
+     */
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Loads reloadable packages from the class directories itself, everything else from the parent
+     */
+    private static final class ReloadingClassLoader extends ClassLoader {
+        private final List<Path> directories;
+        private final List<String> packages;
+
+        ReloadingClassLoader(List<Path> directories, List<String> packages, ClassLoader parent) {
+            super("test-daemon-run", parent);
+            this.directories = directories;
+            this.packages = packages;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!isReloadable(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    type = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(type);
+                }
+                return type;
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            String file = name.replace('.', '/') + ".class";
+            for (Path directory : directories) {
+                Path classFile = directory.resolve(file);
+                if (Files.isRegularFile(classFile)) {
+                    try {
+                        byte[] bytes = Files.readAllBytes(classFile);
+                        return defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+            }
+            throw new ClassNotFoundException(name);
+        }
+
+        private boolean isReloadable(String name) {
+            for (String prefix : packages) {
+                if (name.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Streams results of one run to the client
+     */
+    private static final class ResultStream implements ITestListener {
+        private final PrintWriter out;
+        final AtomicInteger passed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
+
+        ResultStream(PrintWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            passed.incrementAndGet();
+            send("PASS", result);
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            failed.incrementAndGet();
+            send("FAIL", result);
+        }
+
+        @Override
+        public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+            passed.incrementAndGet();
+            send("PASS", result);
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            if (result.wasRetried()) {
+                send("RETRY", result);
+                return;
+            }
+            skipped.incrementAndGet();
+            send("SKIP", result);
+        }
+
+        private void send(String status, ITestResult result) {
+            StringBuilder line = new StringBuilder(status).append(' ')
+                .append(result.getMethod().getQualifiedName());
+            if (result.getParameters().length > 0) {
+                line.append(Arrays.toString(result.getParameters()));
+            }
+            line.append(' ').append(result.getEndMillis() - result.getStartMillis()).append(" ms");
+            Throwable failure = result.getThrowable();
+            if (failure != null && !"PASS".equals(status)) {
+                String message = String.valueOf(failure.getMessage());
+                int newline = message.indexOf('\n');
+                line.append(": ").append(failure.getClass().getSimpleName()).append(": ")
+                    .append(newline < 0 ? message : message.substring(0, newline));
+            }
+            synchronized (out) {
+                out.println(line);
+                out.flush();
+            }
+        }
+    }
+
+    private void start(String host, int port) throws IOException, InterruptedException {
+        // Warm up on the thread that will own the browser
+        long start = System.nanoTime();
+        try {
+            runner.submit(BrowserContextManager::initializeBrowserContext).get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to start the browser", e);
+        }
+        log.info("Browser ready in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "test-daemon-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ServerSocket server = new ServerSocket()) {
+            server.bind(new InetSocketAddress(InetAddress.getByName(host), port));
+            server.setSoTimeout(500);
+            log.info("Test daemon listening on {}:{} (reloading {})", host, port, reloadPackages);
+            while (!stopping) {
+                try {
+                    Socket socket = server.accept();
+                    connections.execute(() -> handle(socket));
+                } catch (SocketTimeoutException e) {
+                    // check the stop flag
+                }
+            }
+        } finally {
+            connections.shutdownNow();
+            shutdown();
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), false, StandardCharsets.UTF_8)) {
+            String request = in.readLine();
+            if (request == null || request.isBlank()) {
+                return;
+            }
+            String[] words = request.trim().split("\\s+");
+            switch (words[0]) {
+                case "run" -> run(Arrays.asList(words).subList(1, words.length), out);
+                case "status" -> {
+                    out.println("OK runs=" + runs.get() + " uptime="
+                        + TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - startedAt) + "s");
+                    out.flush();
+                }
+                case "stop" -> {
+                    stopping = true;
+                    out.println("OK stopping");
+                    out.flush();
+                }
+                default -> {
+                    out.println("ERROR unknown command: " + words[0] + " (run|status|stop)");
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Client connection failed: {}", e.toString());
+        }
+    }
+
+    private void run(List<String> selectors, PrintWriter out) {
+        if (selectors.isEmpty()) {
+            out.println("ERROR nothing to run; pass Class or Class#method");
+            out.flush();
+            return;
+        }
+        Future<?> run = runner.submit(() -> {
+            long start = System.nanoTime();
+            ResultStream results = new ResultStream(out);
+            ClassLoader previous = Thread.currentThread().getContextClassLoader();
+            ClassLoader loader = new ReloadingClassLoader(classDirectories, reloadPackages, previous);
+            Thread.currentThread().setContextClassLoader(loader);
+            try {
+                TestNG testng = new TestNG(false);
+                testng.setXmlSuites(List.of(suite(selectors, loader)));
+                testng.setUseDefaultListeners(false);
+                testng.setVerbose(0);
+                testng.addListener(results);
+                testng.run();
+            } catch (ClassNotFoundException e) {
+                synchronized (out) {
+                    out.println("ERROR test class not found: " + e.getMessage());
+                    out.flush();
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.error("Run failed", e);
+                synchronized (out) {
+                    out.println("ERROR " + e);
+                    out.flush();
+                }
+                return;
+            } finally {
+                Thread.currentThread().setContextClassLoader(previous);
+                ScreenshotUtils.flush();
+                // Threads of this run are gone; their pooled browsers would leak
+                BrowserContextManager.closeWorkerBrowsers();
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("Run {} finished in {} ms: {}", runs.incrementAndGet(), millis, selectors);
+            synchronized (out) {
+                out.println("DONE passed=" + results.passed.get() + " failed=" + results.failed.get()
+                    + " skipped=" + results.skipped.get() + " " + millis + " ms");
+                out.flush();
+            }
+        });
+        try {
+            run.get();
+        } catch (Exception e) {
+            out.println("ERROR " + e);
+            out.flush();
+        }
+    }
+
+    /**
+     * One-test suite with the template's listeners and the selected classes and methods
+     */
+    private XmlSuite suite(List<String> selectors, ClassLoader loader) throws ClassNotFoundException {
+        Map<String, List<String>> methodsByClass = new LinkedHashMap<>();
+        for (String selector : selectors) {
+            int hash = selector.indexOf('#');
+            String className = hash < 0 ? selector : selector.substring(0, hash);
+            List<String> methods = methodsByClass.computeIfAbsent(className, k -> new ArrayList<>());
+            if (hash >= 0) {
+                methods.add(selector.substring(hash + 1));
+            }
+        }
+
+        XmlSuite suite = new XmlSuite();
+        suite.setName(template.getName());
+        suite.setListeners(new ArrayList<>(template.getListeners()));
+        suite.setParameters(template.getParameters());
+        suite.setDataProviderThreadCount(template.getDataProviderThreadCount());
+        suite.setParallel(XmlSuite.ParallelMode.NONE);
+        XmlTest test = new XmlTest(suite);
+        test.setName("daemon-run-" + (runs.get() + 1));
+        test.setParallel(XmlSuite.ParallelMode.NONE);
+        for (Map.Entry<String, List<String>> entry : methodsByClass.entrySet()) {
+            XmlClass xmlClass = new XmlClass(Class.forName(entry.getKey(), false, loader), false);
+            for (String method : entry.getValue()) {
+                xmlClass.getIncludedMethods().add(new XmlInclude(method));
+            }
+            test.getXmlClasses().add(xmlClass);
+        }
+        return suite;
+    }
+
+    private void shutdown() {
+        log.info("Stopping test daemon after {} run(s)", runs.get());
+        try {
+            runner.submit(() -> {
+                ScreenshotUtils.flush();
+                ArtifactSink.closeRun();
+                BrowserContextManager.closeBrowser();
+            }).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("Browser shutdown failed: {}", e.toString());
+        }
+        runner.shutdownNow();
+    }
+
+    private static Path classDirectory(Class<?> type) {
+        try {
+            return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate classes of " + type.getName(), e);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String suiteFile = args.length > 0 ? args[0] : "src/test/resources/testng.xml";
+        // Only listeners and parameters are used; test classes are loaded per run
+        Parser parser = new Parser(Paths.get(suiteFile).toString());
+        parser.setLoadClasses(false);
+        XmlSuite template = parser.parseToList().get(0);
+        List<String> reloadPackages = new ArrayList<>();
+        for (String prefix : System.getProperty("daemon.reload", "tests.,com.pages.").split(",")) {
+            if (!prefix.isBlank()) {
+                reloadPackages.add(prefix.trim());
+            }
+        }
+        List<Path> classDirectories = List.of(classDirectory(BaseTest.class), classDirectory(BasePage.class));
+
+        active = true;
+        try {
+            new TestDaemon(template, classDirectories, reloadPackages).start(
+                System.getProperty("daemon.host", "127.0.0.1"), Integer.getInteger("daemon.port", DEFAULT_PORT));
+        } finally {
+            active = false;
+        }
+        System.exit(0);
+    }
+}
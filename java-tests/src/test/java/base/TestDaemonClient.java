@@ -0,0 +1,56 @@
+package base;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Command line client for TestDaemon
+ *
+ *   java -cp target/test-classes base.TestDaemonClient tests.LoginTest#testLogin [more...]
+ *   java -cp target/test-classes base.TestDaemonClient --status | --stop
+ *
+ * Prints result lines as the daemon sends them and exits with 1 if a test failed or the
+ * daemon reported an error, 2 if no daemon is listening. Uses only the JDK, so it starts
+ * in a fraction of a second with just the test classes on the classpath.
+ */
+public final class TestDaemonClient {
+    private TestDaemonClient() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: TestDaemonClient <Class[#method]>... | --status | --stop");
+            System.exit(2);
+        }
+        String request = switch (args[0]) {
+            case "--status" -> "status";
+            case "--stop" -> "stop";
+            default -> "run " + String.join(" ", args);
+        };
+        String host = System.getProperty("daemon.host", "127.0.0.1");
+        int port = Integer.getInteger("daemon.port", TestDaemon.DEFAULT_PORT);
+
+        int exitCode = 0;
+        try (Socket socket = new Socket(host, port);
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            out.println(request);
+            String line;
+            while ((line = in.readLine()) != null) {
+                System.out.println(line);
+                if (line.startsWith("FAIL ") || line.startsWith("ERROR ")
+                        || (line.startsWith("DONE ") && !line.contains(" failed=0 "))) {
+                    exitCode = 1;
+                }
+            }
+        } catch (ConnectException e) {
+            System.err.println("No test daemon on " + host + ":" + port + "; start one with: mvn test-compile exec:exec -Pdaemon");
+            exitCode = 2;
+        }
+        System.exit(exitCode);
+    }
+}
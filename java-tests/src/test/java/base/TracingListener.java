@@ -0,0 +1,267 @@
+package base;
+
+import com.config.ConfigManager;
+import com.logging.LogHelper;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.Tracing;
+import com.utils.ArtifactSink;
+import com.utils.UniqueIdGenerator;
+import org.slf4j.Logger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Playwright tracing for every context opened through BrowserContextManager
+ *
+ * Each context records screenshots, DOM snapshots and sources from the moment it is
+ * opened. When a test method finishes, the chunk recorded for it is either saved to
+ * target/traces/&lt;Class.method&gt;_&lt;id&gt;.zip or discarded. Discarded chunks stay
+ * inside the Playwright driver and are never written to disk. A new chunk then starts,
+ * so contexts shared by several tests get one trace per test.
+ *
+ * A test's own fixture context (BaseTest) is finished in its @AfterMethod instead, in the
+ * same step that closes it: TestNG calls this listener before @AfterMethod, and restarting
+ * a chunk on a context about to close, or holding it open until the next test, would cost
+ * every test a chunk and keep a row permit parked.
+ *
+ * Mode (config key trace, e.g. -Dtrace=on):
+ *   retain-on-failure - save traces of failed attempts (default); for a retried test this is
+ *                       the trace of the attempt that failed and triggered the retry
+ *   on                - save every trace
+ *   off               - no tracing
+ *
+ * Time spent in tracing calls is measured per test and summarised at suite end;
+ * compare suite duration with -Dtrace=off for the cost of recording during actions.
+ */
+public class TracingListener implements IInvokedMethodListener, ISuiteListener {
+    private static final Logger log = LogHelper.getLogger(TracingListener.class);
+    private static final Path TRACE_DIR = Paths.get("target/traces");
+
+    // Contexts traced on this thread; Playwright objects never leave their thread
+    private static final ThreadLocal<List<Traced>> traced = ThreadLocal.withInitial(ArrayList::new);
+    // Overhead of this thread's test measured in afterInvocation, counted once its fixture is finished
+    private static final ThreadLocal<Long> pendingOverhead = new ThreadLocal<>();
+
+    private static final AtomicInteger tests = new AtomicInteger();
+    private static final AtomicInteger saved = new AtomicInteger();
+    private static final AtomicLong overheadNanos = new AtomicLong();
+    private static final LongAccumulator maxOverheadNanos = new LongAccumulator(Math::max, 0);
+    private static volatile long suiteStart;
+
+    /**
+     * A traced context, and what to do once its test has finished
+     */
+    private static final class Traced {
+        final BrowserContext context;
+        long overheadNanos;
+        boolean closed;
+        // Finished and closed by finishAndClose(), not by afterInvocation()
+        boolean fixture;
+        Runnable closeAfterTest;
+
+        Traced(BrowserContext context) {
+            this.context = context;
+        }
+    }
+
+    public static boolean isTracing() {
+        return !"off".equals(ConfigManager.getTraceMode());
+    }
+
+    /**
+     * Start tracing a newly opened context on the calling thread
+     */
+    static void start(BrowserContext context) {
+        if (!isTracing()) {
+            return;
+        }
+        long begin = System.nanoTime();
+        context.tracing().start(new Tracing.StartOptions()
+            .setScreenshots(true)
+            .setSnapshots(true)
+            .setSources(true));
+        Traced entry = new Traced(context);
+        entry.overheadNanos = System.nanoTime() - begin;
+        List<Traced> contexts = traced.get();
+        contexts.add(entry);
+        context.onClose(closedContext -> entry.closed = true);
+    }
+
+    /**
+     * Hold a context open until its test's trace is saved or discarded
+     * @return false if the context is not traced, so the caller should close it now
+     */
+    static boolean closeAfterTest(BrowserContext context, Runnable close) {
+        Traced entry = find(context);
+        if (entry == null || entry.closed || entry.fixture) {
+            return false;
+        }
+        entry.closeAfterTest = close;
+        return true;
+    }
+
+    /**
+     * Leave a context's trace to finishAndClose() in the test's teardown
+     */
+    static void finishAtTeardown(BrowserContext context) {
+        Traced entry = find(context);
+        if (entry != null) {
+            entry.fixture = true;
+        }
+    }
+
+    /**
+     * Save or discard a fixture context's trace for the finished test, then run close
+     * close always runs, also when the context is not traced.
+     */
+    static void finishAndClose(BrowserContext context, ITestResult result, Runnable close) {
+        Traced entry = find(context);
+        Long pending = pendingOverhead.get();
+        pendingOverhead.remove();
+        try {
+            if (entry == null) {
+                if (pending != null) {
+                    record(result.getMethod().getQualifiedName(), pending);
+                }
+                return;
+            }
+            traced.get().remove(entry);
+            String name = result.getMethod().getQualifiedName();
+            long begin = System.nanoTime();
+            if (!entry.closed) {
+                finishChunk(entry, keep(result), name);
+            }
+            record(name, entry.overheadNanos + System.nanoTime() - begin + (pending != null ? pending : 0));
+        } finally {
+            close.run();
+        }
+    }
+
+    private static Traced find(BrowserContext context) {
+        for (Traced entry : traced.get()) {
+            if (entry.context == context) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether to save the trace of a finished attempt
+     * In afterInvocation a failed attempt is still FAILURE: TestNG runs the retry analyzer
+     * afterwards. By @AfterMethod a retried attempt has become a SKIP with wasRetried() set.
+     */
+    private static boolean keep(ITestResult result) {
+        return "on".equals(ConfigManager.getTraceMode())
+            || result.getStatus() == ITestResult.FAILURE
+            || (result.getStatus() == ITestResult.SKIP && result.wasRetried());
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        suiteStart = System.nanoTime();
+        log.info("Playwright tracing: {}", ConfigManager.getTraceMode());
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        List<Traced> contexts = traced.get();
+        if (contexts.isEmpty()) {
+            return;
+        }
+        boolean keep = keep(result);
+        String name = result.getMethod().getQualifiedName();
+        long testOverhead = 0;
+        boolean fixture = false;
+
+        for (Traced entry : new ArrayList<>(contexts)) {
+            if (entry.fixture && !entry.closed) {
+                fixture = true;
+                continue;
+            }
+            long begin = System.nanoTime();
+            if (!entry.closed) {
+                finishChunk(entry, keep, name);
+            }
+            if (entry.closeAfterTest != null || entry.closed) {
+                contexts.remove(entry);
+                if (entry.closeAfterTest != null) {
+                    entry.closeAfterTest.run();
+                }
+            } else if (!entry.closed) {
+                // The context outlives this test (e.g. opened in @BeforeClass): trace the next one too
+                entry.context.tracing().startChunk();
+            }
+            testOverhead += entry.overheadNanos + System.nanoTime() - begin;
+            entry.overheadNanos = 0;
+        }
+
+        if (fixture) {
+            pendingOverhead.set(testOverhead);
+        } else {
+            record(name, testOverhead);
+        }
+    }
+
+    private static void record(String name, long testOverhead) {
+        tests.incrementAndGet();
+        overheadNanos.addAndGet(testOverhead);
+        maxOverheadNanos.accumulate(testOverhead);
+        log.debug("Tracing overhead for {}: {} ms", name, testOverhead / 1_000_000);
+    }
+
+    private static void finishChunk(Traced entry, boolean keep, String name) {
+        try {
+            if (keep) {
+                Path path = TRACE_DIR.resolve(name + "_" + UniqueIdGenerator.nextId() + ".zip");
+                entry.context.tracing().stopChunk(new Tracing.StopChunkOptions().setPath(path));
+                saved.incrementAndGet();
+                ArtifactSink sink = ArtifactSink.current();
+                if (sink != null) {
+                    sink.add(ArtifactSink.entryName(path), path);
+                    Files.deleteIfExists(path);
+                    log.info("Trace archived: {}", ArtifactSink.entryName(path));
+                    return;
+                }
+                log.info("Trace saved: {} (open with: npx playwright show-trace {})", path, path);
+            } else {
+                entry.context.tracing().stopChunk();
+            }
+        } catch (IOException e) {
+            log.warn("Could not remove archived trace file: {}", e.getMessage());
+        } catch (PlaywrightException e) {
+            // The test closed the context itself; its trace is gone
+            entry.closed = true;
+            log.debug("Could not stop trace for {}: {}", name, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        int count = tests.get();
+        if (count == 0) {
+            return;
+        }
+        long suiteMillis = (System.nanoTime() - suiteStart) / 1_000_000;
+        log.info("Tracing: {} test(s), {} trace(s) saved, overhead avg {} ms / max {} ms per test, {} ms total of {} ms suite",
+            count, saved.get(), overheadNanos.get() / count / 1_000_000, maxOverheadNanos.get() / 1_000_000,
+            overheadNanos.get() / 1_000_000, suiteMillis);
+    }
+}
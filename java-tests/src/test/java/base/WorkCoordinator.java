@@ -0,0 +1,544 @@
+package base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logging.LogHelper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands test methods to worker JVMs on demand, so all workers finish together
+ *
+ * The coordinator reads the suite XML, lists its test methods and serves them over a
+ * small HTTP API built on the JDK HTTP server. Each expected worker owns a queue, filled
+ * longest-first from DurationHistory the same way -Dshard splits a suite. A worker takes
+ * from the front of its own queue; once that is empty it steals from the back of the
+ * queue with the most expected time left. Workers report every result, which feeds the
+ * duration history for the next run.
+ *
+ * A method handed out is leased to its worker. Workers send a heartbeat while a method
+ * runs, so a long test keeps its lease; if a worker does not contact the coordinator for
+ * coordinator.lease seconds its method goes back into the queues. Leases
+ * are swept on a timer as well as on every request, and once every registered worker has
+ * been silent that long the remaining methods are reported as not run.
+ *
+ * Run (test classpath, see the distributed profile in pom.xml):
+ *   mvn test-compile exec:exec -Pdistributed [-Dcoordinator.workers=4]
+ *
+ * Settings (system properties):
+ *   coordinator.host     bind address, default 127.0.0.1 (use 0.0.0.0 for remote workers)
+ *   coordinator.port     default 8717
+ *   coordinator.workers  expected workers, default 2
+ *   coordinator.spawn    start the workers as child JVMs, default true
+ *   coordinator.lease    seconds before a silent worker's method is handed out again, default 600
+ *   coordinator.timeout  seconds before unfinished methods are reported as not run, default 7200
+ *
+ * API (plain text unless noted):
+ *   POST /register        body: worker name        -> worker id
+ *   GET  /next?worker=id  200 Class#method, 202 retry later, 204 nothing left
+ *   POST /result?worker=id  body: Class#method TAB status TAB millis
+ *   POST /heartbeat?worker=id  keeps the worker's leases -> lease millis
+ *   GET  /status          JSON progress
+ */
+public final class WorkCoordinator {
+    private static final Logger log = LogHelper.getLogger(WorkCoordinator.class);
+    private static final Path RESULTS = Paths.get("target/coordinator/results.tsv");
+
+    private record Item(String method, long millis) {}
+
+    private record Lease(Item item, String worker) {}
+
+    private record Result(String method, String worker, String status, long millis) {}
+
+    private static final class Worker {
+        final String id;
+        final String name;
+        final int queue;
+        long lastSeen;
+        boolean drained;
+        int completed;
+        long busyMillis;
+
+        Worker(String id, String name, int queue) {
+            this.id = id;
+            this.name = name;
+            this.queue = queue;
+            this.lastSeen = System.currentTimeMillis();
+        }
+    }
+
+    private final List<Deque<Item>> queues = new ArrayList<>();
+    private final long[] queuedMillis;
+    private final Map<String, Worker> workers = new LinkedHashMap<>();
+    private final Map<String, Lease> leases = new HashMap<>();
+    private final Map<String, Result> results = new LinkedHashMap<>();
+    private final int total;
+    private final long leaseMillis;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private int steals;
+    private int requeued;
+
+    WorkCoordinator(List<String> methods, int expectedWorkers, long leaseMillis) {
+        this.total = methods.size();
+        this.leaseMillis = leaseMillis;
+        this.queuedMillis = new long[expectedWorkers];
+        for (int i = 0; i < expectedWorkers; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+
+        DurationHistory history = DurationHistory.shared();
+        long fallback = Math.max(1, history.meanEstimate());
+        List<Item> items = new ArrayList<>();
+        for (String method : methods) {
+            long estimate = history.estimate(method.replace('#', '.'));
+            items.add(new Item(method, estimate < 0 ? fallback : estimate));
+        }
+        // Longest first into the lightest queue, so each queue also runs longest-first
+        items.sort(Comparator.comparingLong(Item::millis).reversed().thenComparing(Item::method));
+        for (Item item : items) {
+            int lightest = 0;
+            for (int q = 1; q < queues.size(); q++) {
+                if (queuedMillis[q] < queuedMillis[lightest]) {
+                    lightest = q;
+                }
+            }
+            queues.get(lightest).addLast(item);
+            queuedMillis[lightest] += item.millis();
+        }
+        if (total == 0) {
+            finished.countDown();
+        }
+    }
+
+    synchronized String register(String name) {
+        String id = "w" + (workers.size() + 1);
+        Worker worker = new Worker(id, name, workers.size() % queues.size());
+        workers.put(id, worker);
+        log.info("Worker {} registered ({}), owns queue {} with {} method(s)", id, name, worker.queue,
+            queues.get(worker.queue).size());
+        return id;
+    }
+
+    /**
+     * Next method for a worker: its own queue first, then stolen from the fullest queue
+     * @return the method, "" to retry later, or null when everything is done
+     */
+    synchronized String next(String workerId) {
+        Worker worker = touch(workerId);
+        expireLeases();
+
+        Item item = queues.get(worker.queue).pollFirst();
+        int from = worker.queue;
+        if (item == null) {
+            int victim = -1;
+            for (int q = 0; q < queues.size(); q++) {
+                if (!queues.get(q).isEmpty() && (victim < 0 || queuedMillis[q] > queuedMillis[victim])) {
+                    victim = q;
+                }
+            }
+            if (victim >= 0) {
+                item = queues.get(victim).pollLast();
+                from = victim;
+                steals++;
+                log.info("Worker {} stole {} from queue {}", workerId, item.method(), victim);
+            }
+        }
+        if (item == null) {
+            if (leases.isEmpty()) {
+                worker.drained = true;
+                return null;
+            }
+            return "";
+        }
+        queuedMillis[from] -= item.millis();
+        leases.put(item.method(), new Lease(item, workerId));
+        return item.method();
+    }
+
+    synchronized void result(String workerId, String method, String status, long millis) {
+        Worker worker = touch(workerId);
+        Lease lease = leases.get(method);
+        // A lease that expired and went to another worker belongs to that worker now
+        if (lease == null || !lease.worker().equals(workerId) || results.containsKey(method)) {
+            log.warn("Ignoring result for {} from {}: not leased to it", method, workerId);
+            return;
+        }
+        leases.remove(method);
+        results.put(method, new Result(method, workerId, status, millis));
+        worker.completed++;
+        worker.busyMillis += millis;
+        DurationHistory.shared().record(method.replace('#', '.'), millis);
+        log.info("[{}/{}] {} {} on {} ({} ms)", results.size(), total, status, method, workerId, millis);
+        if (results.size() == total) {
+            finished.countDown();
+        }
+    }
+
+    /**
+     * A worker is still running its method; its leases stay valid for another lease period
+     * @return the lease length, so the worker can pace its heartbeats
+     */
+    synchronized long heartbeat(String workerId) {
+        touch(workerId);
+        return leaseMillis;
+    }
+
+    synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("total", total);
+        status.put("done", results.size());
+        status.put("running", leases.size());
+        int queued = 0;
+        for (Deque<Item> queue : queues) {
+            queued += queue.size();
+        }
+        status.put("queued", queued);
+        status.put("steals", steals);
+        status.put("requeued", requeued);
+        Map<String, Object> perWorker = new LinkedHashMap<>();
+        for (Worker worker : workers.values()) {
+            perWorker.put(worker.id, Map.of("name", worker.name, "completed", worker.completed, "busyMillis", worker.busyMillis));
+        }
+        status.put("workers", perWorker);
+        return status;
+    }
+
+    private Worker touch(String workerId) {
+        Worker worker = workers.get(workerId);
+        if (worker == null) {
+            throw new IllegalArgumentException("Unknown worker: " + workerId);
+        }
+        worker.lastSeen = System.currentTimeMillis();
+        return worker;
+    }
+
+    /**
+     * Put methods leased to silent workers back at the front of their owner's queue
+     */
+    private void expireLeases() {
+        long now = System.currentTimeMillis();
+        leases.values().removeIf(lease -> {
+            Worker holder = workers.get(lease.worker());
+            if (now - holder.lastSeen < leaseMillis) {
+                return false;
+            }
+            queues.get(holder.queue).addFirst(lease.item());
+            queuedMillis[holder.queue] += lease.item().millis();
+            requeued++;
+            log.warn("Worker {} went silent; {} is queued again", lease.worker(), lease.item().method());
+            return true;
+        });
+    }
+
+    /**
+     * Timer step: requeue expired leases, and give up once every worker is silent
+     */
+    private synchronized void sweep() {
+        if (finished.getCount() == 0) {
+            return;
+        }
+        expireLeases();
+        if (workers.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Worker worker : workers.values()) {
+            if (worker.drained || now - worker.lastSeen < leaseMillis) {
+                return;
+            }
+        }
+        log.warn("Every worker has been silent for {} s; {} method(s) will not run", TimeUnit.MILLISECONDS.toSeconds(leaseMillis),
+            total - results.size());
+        abandon();
+    }
+
+    /**
+     * Mark everything not reported as not run, e.g. when every worker has exited
+     */
+    private synchronized void abandon() {
+        for (Deque<Item> queue : queues) {
+            for (Item item : queue) {
+                results.putIfAbsent(item.method(), new Result(item.method(), "-", "NOT_RUN", 0));
+            }
+            queue.clear();
+        }
+        for (Lease lease : leases.values()) {
+            results.putIfAbsent(lease.item().method(), new Result(lease.item().method(), lease.worker(), "NOT_RUN", 0));
+        }
+        leases.clear();
+        finished.countDown();
+    }
+
+    private synchronized boolean allDrained() {
+        for (Worker worker : workers.values()) {
+            if (!worker.drained) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized boolean succeeded() {
+        for (Result result : results.values()) {
+            if (!"PASS".equals(result.status()) && !"SKIP".equals(result.status())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void report(long elapsedMillis) throws IOException {
+        Files.createDirectories(RESULTS.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(RESULTS)) {
+            writer.write("method\tworker\tstatus\tmillis");
+            writer.newLine();
+            for (Result result : results.values()) {
+                writer.write(result.method() + "\t" + result.worker() + "\t" + result.status() + "\t" + result.millis());
+                writer.newLine();
+            }
+        }
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Result result : results.values()) {
+            counts.merge(result.status(), 1, Integer::sum);
+        }
+        log.info("Coordinator finished in {} ms: {} method(s) {}, {} steal(s), {} requeued; results in {}",
+            elapsedMillis, results.size(), counts, steals, requeued, RESULTS);
+        for (Worker worker : workers.values()) {
+            log.info("  {} ({}): {} method(s), busy {} ms", worker.id, worker.name, worker.completed, worker.busyMillis);
+        }
+        DurationHistory.shared().save();
+    }
+
+    /**
+     * Test methods of a suite as Class#method, in suite order
+     */
+    static List<String> listMethods(Path suiteFile) throws IOException {
+        Set<String> methods = new LinkedHashSet<>();
+        for (XmlSuite suite : new Parser(suiteFile.toString()).parseToList()) {
+            for (XmlTest test : suite.getTests()) {
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    Class<?> type;
+                    try {
+                        type = Class.forName(xmlClass.getName(), false, WorkCoordinator.class.getClassLoader());
+                    } catch (ClassNotFoundException e) {
+                        throw new IllegalStateException("Test class not on the classpath: " + xmlClass.getName(), e);
+                    }
+                    Set<String> included = new LinkedHashSet<>();
+                    for (XmlInclude include : xmlClass.getIncludedMethods()) {
+                        included.add(include.getName());
+                    }
+                    for (Method method : type.getMethods()) {
+                        if (isTest(type, method) && (included.isEmpty() || included.contains(method.getName()))
+                                && !xmlClass.getExcludedMethods().contains(method.getName())) {
+                            methods.add(type.getName() + "#" + method.getName());
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(methods);
+    }
+
+    private static boolean isTest(Class<?> type, Method method) {
+        Test test = method.getAnnotation(Test.class);
+        if (test == null && method.getDeclaringClass() == type) {
+            test = type.getAnnotation(Test.class);
+        }
+        return test != null && test.enabled();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path suiteFile = Paths.get(args.length > 0 ? args[0] : "src/test/resources/testng.xml");
+        String host = System.getProperty("coordinator.host", "127.0.0.1");
+        int port = Integer.getInteger("coordinator.port", 8717);
+        int expectedWorkers = Math.max(1, Integer.getInteger("coordinator.workers", 2));
+        boolean spawn = Boolean.parseBoolean(System.getProperty("coordinator.spawn", "true"));
+        long leaseMillis = TimeUnit.SECONDS.toMillis(Long.getLong("coordinator.lease", 600));
+        long timeoutMillis = TimeUnit.SECONDS.toMillis(Long.getLong("coordinator.timeout", 7200));
+
+        List<String> methods = listMethods(suiteFile);
+        ImpactAnalysis.Selection impact = ImpactAnalysis.fromSystemProperty();
+        if (impact != null && !impact.fullRun()) {
+            ImpactAnalysis analysis = ImpactAnalysis.shared();
+            methods.removeIf(method -> !analysis.isImpacted(method.substring(0, method.indexOf('#')), impact));
+        }
+        WorkCoordinator coordinator = new WorkCoordinator(methods, expectedWorkers, leaseMillis);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "coordinator-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/register", exchange -> handle(exchange, () -> coordinator.register(body(exchange))));
+        server.createContext("/next", exchange -> handle(exchange, () -> coordinator.next(query(exchange).get("worker"))));
+        server.createContext("/result", exchange -> handle(exchange, () -> {
+            String[] fields = body(exchange).split("\t");
+            coordinator.result(query(exchange).get("worker"), fields[0], fields[1], Long.parseLong(fields[2]));
+            return "ok";
+        }));
+        server.createContext("/heartbeat", exchange -> handle(exchange,
+            () -> String.valueOf(coordinator.heartbeat(query(exchange).get("worker")))));
+        server.createContext("/status", exchange -> handle(exchange,
+            () -> new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(coordinator.status())));
+        server.start();
+        String url = "http://" + host + ":" + server.getAddress().getPort();
+        log.info("Coordinator serving {} method(s) from {} at {} for {} worker(s)", methods.size(), suiteFile, url, expectedWorkers);
+
+        long start = System.currentTimeMillis();
+        List<Process> children = spawn ? spawnWorkers(url, suiteFile, expectedWorkers) : List.of();
+        if (!children.isEmpty()) {
+            Thread watcher = new Thread(() -> {
+                for (Process child : children) {
+                    try {
+                        child.waitFor();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                // Every worker is gone; whatever is left cannot run any more
+                coordinator.abandon();
+            }, "coordinator-workers");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coordinator-leases");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = Math.max(1000, Math.min(leaseMillis / 4, TimeUnit.SECONDS.toMillis(30)));
+        sweeper.scheduleAtFixedRate(coordinator::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+
+        if (!coordinator.finished.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("Run did not finish within {} s; reporting unfinished methods as not run",
+                TimeUnit.MILLISECONDS.toSeconds(timeoutMillis));
+            coordinator.abandon();
+        }
+        sweeper.shutdownNow();
+        // Keep serving until every worker has been told the queue is empty
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!coordinator.allDrained() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        for (Process child : children) {
+            child.waitFor(30, TimeUnit.SECONDS);
+        }
+        server.stop(1);
+        executor.shutdown();
+        coordinator.report(System.currentTimeMillis() - start);
+        System.exit(coordinator.succeeded() ? 0 : 1);
+    }
+
+    /**
+     * Start worker JVMs with this JVM's classpath and -D settings
+     */
+    private static List<Process> spawnWorkers(String url, Path suiteFile, int count) throws IOException {
+        List<String> properties = new ArrayList<>();
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-D") && !argument.startsWith("-Dcoordinator.")) {
+                properties.add(argument);
+            }
+        }
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> children = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(properties);
+            command.add("-Dcoordinator.url=" + url);
+            command.add("-Dworker.name=worker-" + i);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(WorkerRunner.class.getName());
+            command.add(suiteFile.toString());
+            children.add(new ProcessBuilder(command).inheritIO().start());
+        }
+        log.info("Started {} worker JVM(s)", count);
+        return children;
+    }
+
+    private interface Action {
+        String run() throws Exception;
+    }
+
+    private static void handle(HttpExchange exchange, Action action) throws IOException {
+        int code;
+        String response;
+        try {
+            response = action.run();
+            code = response == null ? 204 : response.isEmpty() ? 202 : 200;
+        } catch (Exception e) {
+            code = 400;
+            response = e.getMessage() == null ? e.toString() : e.getMessage();
+            log.warn("Bad request {}: {}", exchange.getRequestURI(), response);
+        }
+        byte[] bytes = response == null ? new byte[0] : response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+
+    private static String body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params;
+    }
+}
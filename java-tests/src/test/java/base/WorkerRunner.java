@@ -0,0 +1,231 @@
+package base;
+
+import com.logging.LogHelper;
+import com.utils.ArtifactSink;
+import com.utils.ScreenshotUtils;
+import org.slf4j.Logger;
+import org.testng.IConfigurationListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Worker JVM for WorkCoordinator: pulls one test method at a time and runs it
+ *
+ * Each pulled method runs as its own one-method TestNG suite with the listeners of the
+ * original suite XML. While it runs, a background thread sends the coordinator a
+ * heartbeat every quarter lease (at most every 30 s), so a method that takes longer than
+ * coordinator.lease is not handed to a second worker. The browser launched by the first method stays up for the rest,
+ * and screenshots, the artifact archive and worker browsers are closed once the queue
+ * is drained. Duration history is kept by the coordinator, not by workers.
+ *
+ * Normally started by the coordinator; to add a worker from another machine:
+ *   java -Dcoordinator.url=http://host:8717 -cp &lt;test classpath&gt; base.WorkerRunner [suite.xml]
+ */
+public final class WorkerRunner {
+    private static final Logger log = LogHelper.getLogger(WorkerRunner.class);
+
+    private static volatile boolean active;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "worker-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final String url;
+    private final XmlSuite template;
+    private String id;
+
+    private WorkerRunner(String url, XmlSuite template) {
+        this.url = url;
+        this.template = template;
+    }
+
+    /**
+     * True inside a worker JVM, where suite-level teardown waits for the queue to drain
+     */
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Outcome of one pulled method: all of its invocations plus per-method configuration
+     */
+    private static final class Outcome implements ITestListener, IConfigurationListener {
+        final AtomicLong millis = new AtomicLong();
+        volatile boolean failed;
+        volatile boolean passed;
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            passed = true;
+            add(result);
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            failed = true;
+            add(result);
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            add(result);
+        }
+
+        @Override
+        public void onConfigurationSuccess(ITestResult result, ITestNGMethod testMethod) {
+            if (result.getMethod().isBeforeMethodConfiguration() || result.getMethod().isAfterMethodConfiguration()) {
+                add(result);
+            }
+        }
+
+        @Override
+        public void onConfigurationFailure(ITestResult result, ITestNGMethod testMethod) {
+            failed = true;
+            add(result);
+        }
+
+        private void add(ITestResult result) {
+            millis.addAndGet(result.getEndMillis() - result.getStartMillis());
+        }
+
+        String status() {
+            return failed ? "FAIL" : passed ? "PASS" : "SKIP";
+        }
+    }
+
+    private void run() throws IOException, InterruptedException {
+        String name = System.getProperty("worker.name", InetAddress.getLocalHost().getHostName()) + "/" + ProcessHandle.current().pid();
+        id = send("/register", name).body();
+        long leaseMillis = Long.parseLong(send("/heartbeat?worker=" + encode(id), "").body());
+        long beatMillis = Math.max(1000, Math.min(leaseMillis / 4, TimeUnit.SECONDS.toMillis(30)));
+        log.info("Worker {} ({}) connected to {}", id, name, url);
+
+        int count = 0;
+        while (true) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url + "/next?worker=" + encode(id))).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 204) {
+                break;
+            }
+            if (response.statusCode() == 202) {
+                // Other workers still hold methods that may come back to the queue
+                Thread.sleep(1000);
+                continue;
+            }
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Coordinator refused " + id + ": " + response.statusCode() + " " + response.body());
+            }
+            String method = response.body();
+            Outcome outcome;
+            ScheduledFuture<?> beat = heartbeats.scheduleAtFixedRate(this::heartbeat, beatMillis, beatMillis, TimeUnit.MILLISECONDS);
+            try {
+                outcome = runMethod(method);
+            } finally {
+                beat.cancel(false);
+            }
+            send("/result?worker=" + encode(id), method + "\t" + outcome.status() + "\t" + outcome.millis.get());
+            count++;
+        }
+        heartbeats.shutdownNow();
+        log.info("Worker {} drained the queue after {} method(s)", id, count);
+    }
+
+    /**
+     * Tell the coordinator this worker is alive while a method runs
+     */
+    private void heartbeat() {
+        try {
+            send("/heartbeat?worker=" + encode(id), "");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            // The next beat or the result may still get through before the lease runs out
+            log.warn("Heartbeat to {} failed: {}", url, e.toString());
+        }
+    }
+
+    private Outcome runMethod(String method) {
+        int hash = method.indexOf('#');
+        String className = method.substring(0, hash);
+
+        XmlSuite suite = new XmlSuite();
+        suite.setName(template.getName());
+        suite.setListeners(new ArrayList<>(template.getListeners()));
+        suite.setParameters(template.getParameters());
+        suite.setDataProviderThreadCount(template.getDataProviderThreadCount());
+        XmlTest test = new XmlTest(suite);
+        test.setName(method);
+        XmlClass xmlClass = new XmlClass(className, false);
+        xmlClass.getIncludedMethods().add(new XmlInclude(method.substring(hash + 1)));
+        test.getXmlClasses().add(xmlClass);
+
+        Outcome outcome = new Outcome();
+        TestNG testng = new TestNG(false);
+        testng.setXmlSuites(List.of(suite));
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.addListener(outcome);
+        testng.run();
+        return outcome;
+    }
+
+    private HttpResponse<String> send(String path, String body) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url + path))
+            .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Coordinator rejected " + path + ": " + response.statusCode() + " " + response.body());
+        }
+        return response;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("coordinator.url");
+        if (url == null) {
+            throw new IllegalArgumentException("Set -Dcoordinator.url, e.g. -Dcoordinator.url=http://127.0.0.1:8717");
+        }
+        String suiteFile = args.length > 0 ? args[0] : "src/test/resources/testng.xml";
+        XmlSuite template = new Parser(Paths.get(suiteFile).toString()).parseToList().get(0);
+
+        active = true;
+        try {
+            new WorkerRunner(url, template).run();
+        } finally {
+            active = false;
+            ScreenshotUtils.flush();
+            ArtifactSink.closeRun();
+            BrowserContextManager.closeBrowser();
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,149 @@
+package benchmarks;
+
+import com.testdata.source.CsvRow;
+import com.testdata.source.CsvSourceReader;
+import com.testdata.source.DataTable;
+import com.testdata.source.ExcelSourceReader;
+import com.testdata.source.MappedCsvFile;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reads the same credential matrix through POI, the buffered CSV reader and the mapped CSV file
+ *
+ * Run: mvn test-compile exec:exec -Pbenchmark -Dbenchmark=CsvDataProviderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvDataProviderBenchmark {
+    private static final String[] HEADERS = {"username", "password", "email", "expectedResult"};
+
+    @Param({"50000"})
+    public int rows;
+
+    private Path directory;
+    private Path csv;
+    private Path xlsx;
+    private MappedCsvFile mapped;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("csv-benchmark");
+        csv = directory.resolve("matrix.csv");
+        xlsx = directory.resolve("matrix.xlsx");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write(String.join(",", HEADERS));
+            writer.newLine();
+            for (int i = 0; i < rows; i++) {
+                String[] values = row(i);
+                writer.write(String.join(",", values));
+                writer.newLine();
+            }
+        }
+
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+             OutputStream out = Files.newOutputStream(xlsx)) {
+            Sheet sheet = workbook.createSheet("Sheet1");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < HEADERS.length; c++) {
+                header.createCell(c).setCellValue(HEADERS[c]);
+            }
+            for (int i = 0; i < rows; i++) {
+                Row row = sheet.createRow(i + 1);
+                String[] values = row(i);
+                for (int c = 0; c < values.length; c++) {
+                    row.createCell(c).setCellValue(values[c]);
+                }
+            }
+            workbook.write(out);
+        }
+
+        mapped = MappedCsvFile.open(csv);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static String[] row(int i) {
+        return new String[] {"user" + i, "Secret" + (i * 31), "user" + i + "@example.com", i % 3 == 0 ? "failure" : "success"};
+    }
+
+    @Benchmark
+    public void poiExcel(Blackhole blackhole) throws IOException {
+        try (InputStream in = Files.newInputStream(xlsx)) {
+            consume(new ExcelSourceReader().read(in, "matrix.xlsx", "Sheet1"), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void bufferedCsv(Blackhole blackhole) throws IOException {
+        try (InputStream in = Files.newInputStream(csv)) {
+            consume(new CsvSourceReader().read(in, "matrix.csv", ""), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void mappedCsv(Blackhole blackhole) throws IOException {
+        Iterator<CsvRow> iterator = mapped.iterator();
+        while (iterator.hasNext()) {
+            consume(iterator.next(), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void mappedCsvParallel(Blackhole blackhole) throws IOException {
+        try (Stream<CsvRow> stream = mapped.rows(true)) {
+            stream.forEach(row -> consume(row, blackhole));
+        }
+    }
+
+    // Every field is turned into the String a test would use, so the lazy mapped views
+    // pay for decoding just as POI and the buffered reader do
+    private static void consume(DataTable table, Blackhole blackhole) {
+        for (Object[] row : table.rows()) {
+            for (Object value : row) {
+                blackhole.consume(value.toString());
+            }
+        }
+    }
+
+    private static void consume(CsvRow row, Blackhole blackhole) {
+        for (int i = 0; i < row.fieldCount(); i++) {
+            blackhole.consume(row.field(i).toString());
+        }
+    }
+}
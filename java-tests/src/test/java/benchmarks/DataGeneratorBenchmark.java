@@ -0,0 +1,92 @@
+package benchmarks;
+
+import com.utils.DataGeneratorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the thread-local SplittableRandom generator with the previous shared
+ * java.util.Random implementation, single-threaded and under 8 contending threads
+ *
+ * Run: mvn test-compile exec:exec -Pbenchmark -Dbenchmark=DataGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataGeneratorBenchmark {
+
+    @Benchmark
+    public String legacyEmail() {
+        return Legacy.randomEmail("test");
+    }
+
+    @Benchmark
+    public String currentEmail() {
+        return DataGeneratorUtils.randomEmail("test");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String legacyEmailContended() {
+        return Legacy.randomEmail("test");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String currentEmailContended() {
+        return DataGeneratorUtils.randomEmail("test");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String legacyStringContended() {
+        return Legacy.randomString(16);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String currentStringContended() {
+        return DataGeneratorUtils.randomString(16);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String[] currentBulkEmails() {
+        return DataGeneratorUtils.randomEmails(1000);
+    }
+
+    /**
+     * The implementation DataGeneratorUtils replaced: one Random shared by all threads
+     */
+    static final class Legacy {
+        private static final Random random = new Random();
+        private static final String ALPHANUMERIC =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+        static String randomString(int length) {
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append(ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length())));
+            }
+            return sb.toString();
+        }
+
+        static String randomEmail(String prefix) {
+            return String.format("%s_%s@example.com", prefix, randomString(8).toLowerCase());
+        }
+    }
+}
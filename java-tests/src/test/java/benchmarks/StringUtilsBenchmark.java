@@ -0,0 +1,242 @@
+package benchmarks;
+
+import com.utils.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares StringUtils with the regex-per-call implementation it replaced
+ * Setup first checks both give the same result (or the same exception) for every
+ * method on fuzzed input, and fails the run if any differ.
+ *
+ * Run: mvn test-compile exec:exec -Pbenchmark -Dbenchmark=StringUtilsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+    private static final int FUZZ_CASES = 200_000;
+    private static final String[] FRAGMENTS = {
+        "a", "Z", "q", "B", "0", "7", " ", "  ", "\t", "\n", "\r", "\u000B", "\f", "\u0085", " ",
+        "-", "--", "_", "@", ".", "+", "/", "$", "?", "#", ":", "é", "İ", " ",
+        "http://", "https://", "ftp://", "example.com", "user.name", "camelCase", "Snake Case", "co"
+    };
+
+    private final String[] emails = {"john.doe@example.com", "user+tag@mail.co.uk", "bad@domain", "no-at-sign.com"};
+    private final String[] titles = {"Hello World Test", "  Product: Widget #42 - Blue ", "camelCaseValue", "order_id-2024"};
+    private final String[] phones = {"+1-555-123-4567", "(555) 987 6543", "Order 1234, qty 56"};
+
+    @Setup
+    public void verifyEquivalence() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < FUZZ_CASES; i++) {
+            String input = fuzz(random);
+            check("isNumeric", input, StringUtils::isNumeric, Legacy::isNumeric);
+            check("isAlphabetic", input, StringUtils::isAlphabetic, Legacy::isAlphabetic);
+            check("isAlphanumeric", input, StringUtils::isAlphanumeric, Legacy::isAlphanumeric);
+            check("isValidEmail", input, StringUtils::isValidEmail, Legacy::isValidEmail);
+            check("isValidUrl", input, StringUtils::isValidUrl, Legacy::isValidUrl);
+            check("removeWhitespace", input, StringUtils::removeWhitespace, Legacy::removeWhitespace);
+            check("normalizeWhitespace", input, StringUtils::normalizeWhitespace, Legacy::normalizeWhitespace);
+            check("toCamelCase", input, StringUtils::toCamelCase, Legacy::toCamelCase);
+            check("toSnakeCase", input, StringUtils::toSnakeCase, Legacy::toSnakeCase);
+            check("toKebabCase", input, StringUtils::toKebabCase, Legacy::toKebabCase);
+            check("capitalizeWords", input, StringUtils::capitalizeWords, Legacy::capitalizeWords);
+            check("removeSpecialCharacters", input, StringUtils::removeSpecialCharacters, Legacy::removeSpecialCharacters);
+            check("extractNumbers", input, StringUtils::extractNumbers, Legacy::extractNumbers);
+            check("extractLetters", input, StringUtils::extractLetters, Legacy::extractLetters);
+            check("toSlug", input, StringUtils::toSlug, Legacy::toSlug);
+        }
+    }
+
+    private static String fuzz(SplittableRandom random) {
+        int parts = random.nextInt(8);
+        StringBuilder sb = new StringBuilder();
+        for (int p = 0; p < parts; p++) {
+            sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static void check(String method, String input, Function<String, Object> current, Function<String, Object> legacy) {
+        Object expected = outcome(legacy, input);
+        Object actual = outcome(current, input);
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException(method + "(" + escape(input) + "): expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static Object outcome(Function<String, Object> function, String input) {
+        try {
+            return String.valueOf(function.apply(input));
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static String escape(String input) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : input.toCharArray()) {
+            if (c < ' ' || c > '~') {
+                sb.append("\\u").append(String.format("%04X", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    @Benchmark
+    public void legacyValidation(Blackhole blackhole) {
+        for (String email : emails) {
+            blackhole.consume(Legacy.isValidEmail(email));
+            blackhole.consume(Legacy.isNumeric(email));
+        }
+    }
+
+    @Benchmark
+    public void currentValidation(Blackhole blackhole) {
+        for (String email : emails) {
+            blackhole.consume(StringUtils.isValidEmail(email));
+            blackhole.consume(StringUtils.isNumeric(email));
+        }
+    }
+
+    @Benchmark
+    public void legacyTransforms(Blackhole blackhole) {
+        for (String title : titles) {
+            blackhole.consume(Legacy.toSlug(title));
+            blackhole.consume(Legacy.toSnakeCase(title));
+        }
+        for (String phone : phones) {
+            blackhole.consume(Legacy.extractNumbers(phone));
+        }
+    }
+
+    @Benchmark
+    public void currentTransforms(Blackhole blackhole) {
+        for (String title : titles) {
+            blackhole.consume(StringUtils.toSlug(title));
+            blackhole.consume(StringUtils.toSnakeCase(title));
+        }
+        for (String phone : phones) {
+            blackhole.consume(StringUtils.extractNumbers(phone));
+        }
+    }
+
+    @Benchmark
+    public void legacyUrl(Blackhole blackhole) {
+        blackhole.consume(Legacy.isValidUrl("https://example.com/path?q=1"));
+    }
+
+    @Benchmark
+    public void currentUrl(Blackhole blackhole) {
+        blackhole.consume(StringUtils.isValidUrl("https://example.com/path?q=1"));
+    }
+
+    /**
+     * The implementation StringUtils replaced: String.matches/replaceAll/split on every call
+     */
+    static final class Legacy {
+        static boolean isNullOrEmpty(String str) {
+            return str == null || str.trim().isEmpty();
+        }
+
+        static Object removeWhitespace(String str) {
+            return isNullOrEmpty(str) ? str : str.replaceAll("\\s+", "");
+        }
+
+        static Object normalizeWhitespace(String str) {
+            return isNullOrEmpty(str) ? str : str.trim().replaceAll("\\s+", " ");
+        }
+
+        static Object toCamelCase(String str) {
+            if (isNullOrEmpty(str)) return str;
+            String[] words = str.split("[\\s_-]+");
+            StringBuilder result = new StringBuilder(words[0].toLowerCase());
+            for (int i = 1; i < words.length; i++) {
+                result.append(StringUtils.capitalize(words[i]));
+            }
+            return result.toString();
+        }
+
+        static Object toSnakeCase(String str) {
+            if (isNullOrEmpty(str)) return str;
+            return str.replaceAll("([a-z])([A-Z])", "$1_$2").replaceAll("[\\s-]+", "_").toLowerCase();
+        }
+
+        static Object toKebabCase(String str) {
+            if (isNullOrEmpty(str)) return str;
+            return str.replaceAll("([a-z])([A-Z])", "$1-$2").replaceAll("[\\s_]+", "-").toLowerCase();
+        }
+
+        static Object capitalizeWords(String str) {
+            if (isNullOrEmpty(str)) return str;
+            String[] words = str.split("\\s+");
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < words.length; i++) {
+                if (i > 0) result.append(" ");
+                result.append(StringUtils.capitalize(words[i]));
+            }
+            return result.toString();
+        }
+
+        static Object isNumeric(String str) {
+            return !isNullOrEmpty(str) && str.matches("\\d+");
+        }
+
+        static Object isAlphabetic(String str) {
+            return !isNullOrEmpty(str) && str.matches("[a-zA-Z]+");
+        }
+
+        static Object isAlphanumeric(String str) {
+            return !isNullOrEmpty(str) && str.matches("[a-zA-Z0-9]+");
+        }
+
+        static Object isValidEmail(String email) {
+            return !isNullOrEmpty(email) && email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+        }
+
+        static Object isValidUrl(String url) {
+            return !isNullOrEmpty(url) && url.matches("^(https?|ftp)://[^\\s/$.?#].[^\\s]*$");
+        }
+
+        static Object removeSpecialCharacters(String str) {
+            return isNullOrEmpty(str) ? str : str.replaceAll("[^a-zA-Z0-9\\s]", "");
+        }
+
+        static Object extractNumbers(String str) {
+            return isNullOrEmpty(str) ? "" : str.replaceAll("[^0-9]", "");
+        }
+
+        static Object extractLetters(String str) {
+            return isNullOrEmpty(str) ? "" : str.replaceAll("[^a-zA-Z]", "");
+        }
+
+        static Object toSlug(String str) {
+            if (isNullOrEmpty(str)) return str;
+            return str.toLowerCase()
+                      .trim()
+                      .replaceAll("[^a-z0-9\\s-]", "")
+                      .replaceAll("\\s+", "-")
+                      .replaceAll("-+", "-")
+                      .replaceAll("^-|-$", "");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import com.testdata.TestDataManager;
+import com.testdata.TestDataRepository;
+import com.testdata.models.LoginUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares typed repository lookups with the Map-walking approach
+ *
+ * Run: mvn test-compile exec:exec -Pbenchmark -Dbenchmark=TestDataLookupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestDataLookupBenchmark {
+    private static final String FILE = "users.json";
+
+    private Map<String, Object> users;
+    private TestDataRepository repository;
+
+    @Setup
+    public void setup() {
+        users = TestDataManager.loadJsonDataAsMap(FILE);
+        repository = TestDataRepository.of(FILE);
+    }
+
+    /**
+     * Current path: parse the file and walk nested maps on every lookup
+     */
+    @Benchmark
+    public String nestedValueFromFile() {
+        return TestDataManager.getNestedValue(FILE, "loginUsers.validUser.username");
+    }
+
+    /**
+     * Current path with the map already in memory: casts and two hash lookups
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public String nestedValueFromMap() {
+        Map<String, Object> loginUsers = (Map<String, Object>) users.get("loginUsers");
+        Map<String, Object> validUser = (Map<String, Object>) loginUsers.get("validUser");
+        return validUser.get("username").toString();
+    }
+
+    @Benchmark
+    public String repositoryGet() {
+        return repository.get(LoginUser.class, "loginUsers.validUser").username();
+    }
+}
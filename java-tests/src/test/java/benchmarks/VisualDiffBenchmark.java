@@ -0,0 +1,96 @@
+package benchmarks;
+
+import com.visual.Region;
+import com.visual.VisualComparator;
+import com.visual.VisualDiffResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a 4K (3840x2160) page image against its baseline
+ * Setup checks the comparator's verdicts on the prepared images before measuring.
+ *
+ * Run: mvn test-compile exec:exec -Pbenchmark -Dbenchmark=VisualDiffBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisualDiffBenchmark {
+    private static final int WIDTH = 3840;
+    private static final int HEIGHT = 2160;
+
+    private int[] baseline;
+    private int[] identical;
+    private int[] lastPixelChanged;
+    private int[] firstRowChanged;
+    private final VisualComparator comparator = new VisualComparator();
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(7);
+        baseline = new int[WIDTH * HEIGHT];
+        // Flat blocks with noisy text-like rows, roughly what a rendered page looks like
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                baseline[y * WIDTH + x] = y % 40 < 12 ? 0xFF000000 | random.nextInt(0x1000000) : 0xFFF4F4F4;
+            }
+        }
+        identical = baseline.clone();
+        lastPixelChanged = baseline.clone();
+        lastPixelChanged[lastPixelChanged.length - 1] ^= 0x00FFFFFF;
+        firstRowChanged = baseline.clone();
+        for (int x = 0; x < WIDTH; x++) {
+            firstRowChanged[x] ^= 0x00FFFFFF;
+        }
+
+        check(compare(identical).matches(), "identical images should match");
+        check(!compare(lastPixelChanged).matches(), "a changed pixel should be reported");
+        check(new VisualComparator().ignore(new Region(WIDTH - 1, HEIGHT - 1, 1, 1))
+            .compare(lastPixelChanged, baseline, WIDTH, HEIGHT, false).matches(), "an ignored pixel should not be reported");
+        check(!compare(firstRowChanged).matches(), "a changed row should be reported");
+    }
+
+    private VisualDiffResult compare(int[] actual) {
+        return comparator.compare(actual, baseline, WIDTH, HEIGHT, false);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    @Benchmark
+    public VisualDiffResult identical() {
+        return compare(identical);
+    }
+
+    @Benchmark
+    public VisualDiffResult lastPixelChanged() {
+        return compare(lastPixelChanged);
+    }
+
+    @Benchmark
+    public VisualDiffResult firstRowChangedFailFast() {
+        return compare(firstRowChanged);
+    }
+
+    @Benchmark
+    public VisualDiffResult firstRowChangedWithDiffImage() {
+        return comparator.compare(firstRowChanged, baseline, WIDTH, HEIGHT, true);
+    }
+}
@@ -4,11 +4,9 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
-import com.microsoft.playwright.Page;
 import com.pages.AlertPage;
 
 import base.BaseTest;
-import base.BrowserContextManager;
 
 /**
  * AlartTest - Comprehensive test cases for different types of alerts/dialogs
@@ -29,14 +27,13 @@ import base.BrowserContextManager;
  * 5. Assert expected behavior
  */
 public class AlartTest extends BaseTest {
-    private Page page;
-    private AlertPage alertPage;
-
     @BeforeMethod
-    public void setupTest() {
-        page = BrowserContextManager.getNewPage();
-        alertPage = new AlertPage(page);
-        alertPage.navigate();
+    public void openAlertsPage() {
+        alertPage().navigate();
+    }
+
+    private AlertPage alertPage() {
+        return new AlertPage(page());
     }
 
     /**
@@ -54,7 +51,7 @@ public class AlartTest extends BaseTest {
         logger.info("Testing Simple Alert");
         
         // Click simple alert and get text
-        String alertText = alertPage.clickSimpleAlertAndGetText();
+        String alertText = alertPage().clickSimpleAlertAndGetText();
         
         // Verify alert text is not null or empty
         Assert.assertNotNull(alertText, "Alert text should not be null");
@@ -77,7 +74,7 @@ public class AlartTest extends BaseTest {
         logger.info("Testing Confirm Alert - Accept");
         
         // Click confirm alert and accept
-        String alertText = alertPage.clickConfirmAlertAndAccept();
+        String alertText = alertPage().clickConfirmAlertAndAccept();
         
         // Verify alert text
         Assert.assertNotNull(alertText, "Confirm alert text should not be null");
@@ -100,7 +97,7 @@ public class AlartTest extends BaseTest {
         logger.info("Testing Confirm Alert - Dismiss");
         
         // Click confirm alert and dismiss
-        String alertText = alertPage.clickConfirmAlertAndDismiss();
+        String alertText = alertPage().clickConfirmAlertAndDismiss();
         
         // Verify alert text
         Assert.assertNotNull(alertText, "Confirm alert text should not be null");
@@ -125,7 +122,7 @@ public class AlartTest extends BaseTest {
         String userName = "Test User";
         
         // Click prompt alert and enter name
-        String alertText = alertPage.clickPromptAlertAndEnterName(userName);
+        String alertText = alertPage().clickPromptAlertAndEnterName(userName);
         
         // Verify alert text
         Assert.assertNotNull(alertText, "Prompt alert text should not be null");
@@ -151,7 +148,7 @@ public class AlartTest extends BaseTest {
         logger.info("Testing Toast Alert");
         
         // Click toast alert and get text
-        String toastText = alertPage.clickToastAlertAndGetText();
+        String toastText = alertPage().clickToastAlertAndGetText();
         
         // Print toast text
         System.out.println("Toast Alert Text: " + toastText);
@@ -181,7 +178,7 @@ public class AlartTest extends BaseTest {
         logger.info("Testing Sweet Alert");
         
         // Click sweet alert and get text
-        String alertText = alertPage.clickSweetAlertAndGetText();
+        String alertText = alertPage().clickSweetAlertAndGetText();
         
         // Verify alert text
         Assert.assertNotNull(alertText, "Sweet Alert text should not be null");
@@ -189,7 +186,7 @@ public class AlartTest extends BaseTest {
         logger.info("Sweet Alert verified with text: {}", alertText);
         
         // Close sweet alert
-        alertPage.closeSweetAlert();
+        alertPage().closeSweetAlert();
         logger.info("Sweet Alert closed successfully");
     }
 
@@ -212,20 +209,20 @@ public class AlartTest extends BaseTest {
         logger.info("Testing Advanced UI Alert");
         
         // Click advanced alert
-        alertPage.clickAdvancedAlert();
+        alertPage().clickAdvancedAlert();
         
         // Verify share link is visible
-        boolean shareLinkVisible = alertPage.isShareLinkVisible();
+        boolean shareLinkVisible = alertPage().isShareLinkVisible();
         Assert.assertTrue(shareLinkVisible, "Share link should be visible in Advanced UI Alert");
         logger.info("Share link verified: visible");
         
         // Verify close button is visible
-        boolean closeButtonVisible = alertPage.isCloseButtonVisible();
+        boolean closeButtonVisible = alertPage().isCloseButtonVisible();
         Assert.assertTrue(closeButtonVisible, "Close button should be visible in Advanced UI Alert");
         logger.info("Close button verified: visible");
         
         // Close the alert
-        alertPage.closeAdvancedAlert();
+        alertPage().closeAdvancedAlert();
         logger.info("Advanced UI Alert closed successfully");
     }
 }
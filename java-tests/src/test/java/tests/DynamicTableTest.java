@@ -1,11 +1,8 @@
 package tests;
 
 import base.BaseTest;
-import base.BrowserContextManager;
-import com.microsoft.playwright.Page;
 import com.pages.DynamicTable;
 import org.testng.Assert;
-import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.List;
@@ -43,13 +40,8 @@ import java.util.List;
  * Assertion: "9.7%" == "9.7%" ✓ PASS
  */
 public class DynamicTableTest extends BaseTest {
-    private DynamicTable dynamicTable;
-   private Page page;
-    
-    @BeforeMethod
-    public void setup(){
-        page = BrowserContextManager.getNewPage();
-        dynamicTable = new DynamicTable(page);
+    private DynamicTable dynamicTable() {
+        return new DynamicTable(page());
     }
 
     /**
@@ -62,6 +54,7 @@ public class DynamicTableTest extends BaseTest {
      */
     @Test
     public void displayRows(){
+        DynamicTable dynamicTable = dynamicTable();
         dynamicTable.open();
         
         // Print formatted table
@@ -100,6 +93,7 @@ public class DynamicTableTest extends BaseTest {
      */
     @Test
     public void verifyChromeProcessCpuValue(){
+        DynamicTable dynamicTable = dynamicTable();
         dynamicTable.open();
         
         // Get Chrome CPU value from table (dynamic column detection)
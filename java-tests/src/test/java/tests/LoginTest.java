@@ -1,27 +1,18 @@
 package tests;
 
 import org.testng.Assert;
-import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import com.microsoft.playwright.Page;
 import com.pages.LoginPage;
 
 import base.BaseTest;
-import base.BrowserContextManager;
 
 public class LoginTest extends BaseTest {
-    private Page page;
-    private LoginPage loginPage;
-
-    @BeforeMethod
-    public void setUp() {
-        page = BrowserContextManager.getNewPage();
-        loginPage = new LoginPage(page);
-    }
-
     @Test
     public void testLogin() {
+        Page page = page();
+        LoginPage loginPage = new LoginPage(page);
         loginPage.open().enterUsername().enterPassword().clickSignIn();
         // Assertion using LoginPage helper
         Assert.assertTrue(loginPage.isLoggedIn(),
@@ -1,27 +1,20 @@
 package tests;
 
 import base.BaseTest;
-import base.BrowserContextManager;
-import com.microsoft.playwright.Page;
 import com.pages.LoginPage;
 import com.testdata.TestDataManager;
+import com.testdata.TestDataRepository;
+import com.testdata.models.LoginUser;
+import com.testdata.source.DataSource;
 import org.testng.Assert;
-import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
-import java.util.Map;
-
 /**
  * Example test demonstrating different test data management approaches
  */
 public class LoginTestWithData extends BaseTest {
-    private Page page;
-    private LoginPage loginPage;
-    
-    @BeforeMethod
-    public void setupTest() {
-        page = BrowserContextManager.getNewPage();
-        loginPage = new LoginPage(page);
+    private LoginPage loginPage() {
+        return new LoginPage(page());
     }
     
     /**
@@ -31,22 +24,20 @@ public class LoginTestWithData extends BaseTest {
     public void testLoginWithJsonModel() {
         logger.info("Testing login with JSON model-based test data");
         
-        // Load test data from JSON into model object
-        Map<String, Object> users = TestDataManager.loadJsonDataAsMap("users.json");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> validUserData = (Map<String, Object>) 
-            ((Map<String, Object>) users.get("loginUsers")).get("validUser");
+        // Bind test data from JSON straight into the model object
+        LoginUser validUser = TestDataRepository.of("users.json")
+            .get(LoginUser.class, "loginUsers.validUser");
         
-        String username = validUserData.get("username").toString();
-        String password = validUserData.get("password").toString();
-        String expectedUrl = validUserData.get("expectedUrl").toString();
+        String username = validUser.username();
+        String password = validUser.password();
+        String expectedUrl = validUser.expectedUrl();
         
-        loginPage.open()
+        loginPage().open()
                 .enterUsername(username)
                 .enterPassword(password)
                 .clickSignIn();
         
-        Assert.assertTrue(page.url().contains(expectedUrl), 
+        Assert.assertTrue(page().url().contains(expectedUrl), 
             "User should be redirected to secure page");
         logger.info("Login test with JSON data passed");
     }
@@ -65,7 +56,7 @@ public class LoginTestWithData extends BaseTest {
         String expectedError = TestDataManager.getNestedValue("users.json", 
             "loginUsers.invalidUser.expectedError");
         
-        loginPage.open()
+        loginPage().open()
                 .enterUsername(username)
                 .enterPassword(password)
                 .clickSignIn();
@@ -86,12 +77,12 @@ public class LoginTestWithData extends BaseTest {
         String username = com.config.ConfigManager.getUserName();
         String password = com.config.ConfigManager.getPassword();
         
-        loginPage.open()
+        loginPage().open()
                 .enterUsername(username)
                 .enterPassword(password)
                 .clickSignIn();
         
-        Assert.assertTrue(page.url().contains("/secure"), 
+        Assert.assertTrue(page().url().contains("/secure"), 
             "Should navigate to secure page");
         logger.info("Login test with config properties passed");
     }
@@ -108,7 +99,7 @@ public class LoginTestWithData extends BaseTest {
         
         logger.info("Generated random username: {}", randomUsername);
         
-        loginPage.open()
+        loginPage().open()
                 .enterUsername(randomUsername)
                 .enterPassword(randomPassword)
                 .clickSignIn();
@@ -116,4 +107,27 @@ public class LoginTestWithData extends BaseTest {
         // Should fail with invalid credentials
         logger.info("Random data login test completed");
     }
+    
+    /**
+     * Approach 5: Parallel rows, each in its own browser context
+     * Rows run concurrently on the data-provider pool (sized by parallel.rows); BaseTest
+     * opens each row's page as a row session
+     */
+    @DataSource(file = "users.json", sheet = "loginUsers", columns = {"username", "password", "expectedUrl"})
+    @Test(priority = 5, dataProvider = "jsonDataParallel", dataProviderClass = TestDataManager.class)
+    public void testLoginMatrixInParallel(String username, String password, String expectedUrl) {
+        logger.info("Testing login row for user '{}'", username);
+        
+        loginPage().open()
+                .enterUsername(username)
+                .enterPassword(password)
+                .clickSignIn();
+        
+        if (expectedUrl.isEmpty()) {
+            Assert.assertFalse(loginPage().isLoggedIn(), "User '" + username + "' should not log in");
+        } else {
+            Assert.assertTrue(page().url().contains(expectedUrl),
+                "User '" + username + "' should be redirected to " + expectedUrl);
+        }
+    }
 }